@@ -0,0 +1,69 @@
+package com.friendgift.auth;
+
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.JWTAuthContextInfo;
+import io.smallrye.jwt.build.Jwt;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing (login, register) and full verification (every authenticated request that misses
+ * {@link CachingJWTParser}'s cache), through smallrye-jwt as the application uses it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+	@Param({"RS256", "ES256", "EdDSA"})
+	String algorithmName;
+
+	JwtAlgorithm algorithm;
+	KeyPair keys;
+	DefaultJWTParser parser;
+	String token;
+
+	@Setup
+	public void setUp() throws Exception {
+		algorithm = JwtAlgorithm.fromJoseName(algorithmName);
+		keys = algorithm.generateKeyPair();
+		JWTAuthContextInfo context = new JWTAuthContextInfo(keys.getPublic(), TokenIssuer.ISSUER);
+		context.setSignatureAlgorithm(Set.of(algorithm.signatureAlgorithm));
+		parser = new DefaultJWTParser(context);
+		token = sign();
+	}
+
+	@Benchmark
+	public String sign() {
+		return Jwt.issuer(TokenIssuer.ISSUER)
+				.upn("omar")
+				.subject("omar")
+				.groups(Set.of("user"))
+				.expiresAt(Instant.now().plus(TokenIssuer.LIFETIME))
+				.jws()
+				.algorithm(algorithm.signatureAlgorithm)
+				.sign(keys.getPrivate());
+	}
+
+	@Benchmark
+	public JsonWebToken verify() throws Exception {
+		return parser.parse(token);
+	}
+}
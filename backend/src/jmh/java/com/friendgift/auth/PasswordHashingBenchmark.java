@@ -0,0 +1,53 @@
+package com.friendgift.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login verification throughput per bcrypt cost: {@code verifyOneCore} is logins/s per core,
+ * {@code verifyAllCores} what the machine sustains with every core hashing, as {@link PasswordHasher}'s
+ * pool does under a login storm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+	private static final String PASSWORD = "correct horse battery";
+
+	@Param({"8", "10", "12"})
+	int cost;
+
+	String stored;
+
+	@Setup
+	public void setUp() {
+		stored = PasswordHasher.hash(PASSWORD, cost);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public PasswordHasher.Verification verifyOneCore() {
+		return PasswordHasher.verify(PASSWORD, stored, cost);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public PasswordHasher.Verification verifyAllCores() {
+		return PasswordHasher.verify(PASSWORD, stored, cost);
+	}
+}
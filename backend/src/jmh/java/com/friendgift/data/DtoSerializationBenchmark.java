@@ -0,0 +1,73 @@
+package com.friendgift.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of response bodies, from a full page up to a bulk export-sized list.
+ * The DTOs only hold strings and numbers, so a default mapper writes them exactly as the REST layer does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+	@Param({"200", "10000"})
+	int size;
+
+	ObjectWriter writer;
+	CursorPage<FriendDto> friends;
+	CursorPage<GiftIdeaDto> ideas;
+	List<FriendOverviewDto> overview;
+
+	@Setup
+	public void setUp() {
+		writer = new ObjectMapper().writer();
+		Instant now = Instant.parse("2024-11-30T18:00:00Z");
+		List<FriendDto> friendItems = new ArrayList<>(size);
+		List<GiftIdeaDto> ideaItems = new ArrayList<>(size);
+		overview = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String id = Ids.next().toString();
+			friendItems.add(new FriendDto(id, "Ami " + i));
+			ideaItems.add(new GiftIdeaDto(Ids.next().toString(), "Coffret de the du monde, taille " + i, now.plusMillis(i).toString()));
+			overview.add(new FriendOverviewDto(id, "Ami " + i, i % 17, "Carte cadeau librairie"));
+		}
+		friends = new CursorPage<>(friendItems, new PageCursor(now, UUID.fromString(friendItems.get(size - 1).id)).encode());
+		ideas = new CursorPage<>(ideaItems, null);
+	}
+
+	@Benchmark
+	public byte[] friendsPage() throws Exception {
+		return writer.writeValueAsBytes(friends);
+	}
+
+	@Benchmark
+	public byte[] ideasPage() throws Exception {
+		return writer.writeValueAsBytes(ideas);
+	}
+
+	@Benchmark
+	public byte[] friendsOverview() throws Exception {
+		return writer.writeValueAsBytes(overview);
+	}
+}
@@ -0,0 +1,113 @@
+package com.friendgift.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Idea inserts into a file-backed H2 {@code gift_idea} table that already holds {@code preload} rows,
+ * with the key scheme before V2 ({@code random-varchar}: {@link UUID#randomUUID()} as 36 characters) and
+ * after it ({@code v7-uuid}: {@link Ids#next()} as a native UUID). Same columns and secondary index as
+ * the real table; each invocation inserts and commits one JDBC batch, scored per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdInsertBenchmark {
+	private static final int BATCH = 100;
+	private static final int FRIENDS = 1000;
+
+	@Param({"random-varchar", "v7-uuid"})
+	String scheme;
+
+	@Param({"200000"})
+	int preload;
+
+	Path directory;
+	Connection connection;
+	PreparedStatement insert;
+	UUID[] friendIds;
+	boolean timeOrdered;
+
+	@Setup
+	public void setUp() throws Exception {
+		timeOrdered = scheme.equals("v7-uuid");
+		directory = Files.createTempDirectory("friendgift-ids");
+		connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("bench"), "sa", "");
+		connection.setAutoCommit(false);
+		String key = timeOrdered ? "UUID" : "VARCHAR(36)";
+		try (Statement ddl = connection.createStatement()) {
+			ddl.execute("CREATE TABLE gift_idea (id " + key + " NOT NULL, friend_id " + key + " NOT NULL,"
+					+ " text VARCHAR(400) NOT NULL, created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL, PRIMARY KEY (id))");
+			ddl.execute("CREATE INDEX ix_gift_idea_friend_created ON gift_idea (friend_id, created_at DESC, id DESC)");
+		}
+		friendIds = new UUID[FRIENDS];
+		for (int i = 0; i < FRIENDS; i++) {
+			friendIds[i] = timeOrdered ? Ids.next() : UUID.randomUUID();
+		}
+		insert = connection.prepareStatement("INSERT INTO gift_idea (id, friend_id, text, created_at) VALUES (?, ?, ?, ?)");
+		for (int done = 0; done < preload; done += BATCH) {
+			insertBatch();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void insertBatch() throws SQLException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		for (int i = 0; i < BATCH; i++) {
+			UUID friendId = friendIds[random.nextInt(FRIENDS)];
+			if (timeOrdered) {
+				insert.setObject(1, Ids.next());
+				insert.setObject(2, friendId);
+			} else {
+				insert.setString(1, UUID.randomUUID().toString());
+				insert.setString(2, friendId.toString());
+			}
+			insert.setString(3, "Livre de cuisine italienne, tome " + i);
+			insert.setTimestamp(4, now);
+			insert.addBatch();
+		}
+		insert.executeBatch();
+		connection.commit();
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException, IOException {
+		connection.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(file);
+			}
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package com.friendgift.data;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of {@code GET /api/friends} and {@code GET /api/friends/{id}/ideas}, database included, read
+ * the way {@link UserStore} did before the list queries became projections ({@code *Entities}: managed
+ * entities mapped to DTOs, plus a separate ownership lookup for ideas) and the way it does now
+ * ({@code *Projection}: {@link FriendRepository#listByOwnerUsername} and
+ * {@link GiftIdeaRepository#listByOwnerAndFriendNewestFirst} themselves, mapped by {@link UserStore}'s
+ * row mappers).
+ * <p>
+ * Plain Hibernate over an in-memory H2 built by the real migrations, one session per invocation like
+ * one per request. Allocation per page is reported by the {@code gc} profiler the bench profile runs
+ * ({@code gc.alloc.rate.norm}, bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListQueryBenchmark {
+	private static final String OWNER = "omar";
+	private static final String OTHER = "camille";
+
+	/** Page size: default, maximum. */
+	@Param({"50", "200"})
+	int rows;
+
+	String url;
+	SessionFactory sessionFactory;
+	UUID friendId;
+
+	@Setup
+	public void setUp() {
+		url = "jdbc:h2:mem:list-" + Ids.next() + ";DB_CLOSE_DELAY=-1";
+		Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration").load().migrate();
+		sessionFactory = new Configuration()
+				.addAnnotatedClass(AppUser.class)
+				.addAnnotatedClass(Friend.class)
+				.addAnnotatedClass(GiftIdea.class)
+				.setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+				.setProperty(AvailableSettings.URL, url)
+				.setProperty(AvailableSettings.USER, "sa")
+				.setProperty(AvailableSettings.PASS, "")
+				.buildSessionFactory();
+
+		// Both owners get a full page of friends, and one friend of each a full page of ideas, so the
+		// queries have rows of another owner to skip.
+		Instant now = Instant.parse("2024-11-30T18:00:00Z");
+		sessionFactory.inTransaction(session -> {
+			for (String username : List.of(OTHER, OWNER)) {
+				AppUser owner = new AppUser(username, "x");
+				session.persist(owner);
+				Friend friend = null;
+				for (int i = 0; i <= rows; i++) {
+					friend = new Friend(Ids.next(), owner, "Ami " + i, now.plusSeconds(i));
+					session.persist(friend);
+				}
+				for (int i = 0; i <= rows; i++) {
+					session.persist(new GiftIdea(Ids.next(), friend, "Livre de cuisine italienne, tome " + i, now.plusMillis(i)));
+				}
+				friendId = friend.id;
+			}
+		});
+	}
+
+	@Benchmark
+	public List<FriendDto> friendsEntities() {
+		try (Session session = sessionFactory.openSession()) {
+			List<Friend> page = session
+					.createQuery("from Friend f where f.owner.username = ?1 and f.deletedAt is null"
+							+ " order by f.createdAt, f.id", Friend.class)
+					.setParameter(1, OWNER)
+					.setMaxResults(rows + 1)
+					.getResultList();
+			return page.subList(0, Math.min(rows, page.size())).stream()
+					.map(UserStore::toDto)
+					.toList();
+		}
+	}
+
+	@Benchmark
+	public List<FriendDto> friendsProjection() {
+		try (Session session = sessionFactory.openSession()) {
+			List<Object[]> page = FriendRepository.listByOwnerUsername(session, OWNER, null, rows + 1);
+			return page.subList(0, Math.min(rows, page.size())).stream()
+					.map(UserStore::toFriendDto)
+					.toList();
+		}
+	}
+
+	@Benchmark
+	public List<GiftIdeaDto> ideasEntities() {
+		try (Session session = sessionFactory.openSession()) {
+			Friend friend = session
+					.createQuery("from Friend f where f.owner.username = ?1 and f.id = ?2 and f.deletedAt is null", Friend.class)
+					.setParameter(1, OWNER)
+					.setParameter(2, friendId)
+					.getSingleResult();
+			List<GiftIdea> page = session
+					.createQuery("from GiftIdea i where i.friend.id = ?1 order by i.createdAt desc, i.id desc", GiftIdea.class)
+					.setParameter(1, friend.id)
+					.setMaxResults(rows + 1)
+					.getResultList();
+			return page.subList(0, Math.min(rows, page.size())).stream()
+					.map(UserStore::toDto)
+					.toList();
+		}
+	}
+
+	@Benchmark
+	public List<GiftIdeaDto> ideasProjection() {
+		try (Session session = sessionFactory.openSession()) {
+			List<Object[]> page = GiftIdeaRepository.listByOwnerAndFriendNewestFirst(session, OWNER, friendId, null, rows + 1);
+			return page.subList(0, Math.min(rows, page.size())).stream()
+					.map(UserStore::toIdeaDto)
+					.toList();
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		sessionFactory.close();
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+				Statement statement = connection.createStatement()) {
+			statement.execute("SHUTDOWN");
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.friendgift.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Input validation and entity-to-DTO mapping done by {@link UserStore} on every request.
+ * {@code usernamePrecompiled} is the same check with a compiled pattern, as a reference for
+ * what {@link String#matches} costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserStoreBenchmark {
+	private static final Pattern USERNAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+	/** Page size: default, maximum. */
+	@Param({"50", "200"})
+	int rows;
+
+	String username = "  omar.benali_42 ";
+	String badUsername = "omar benali";
+	String name = "  Camille Dupont  ";
+	List<Friend> friends;
+	List<GiftIdea> ideas;
+
+	@Setup
+	public void setUp() {
+		AppUser owner = new AppUser("omar", null);
+		Instant now = Instant.parse("2024-11-30T18:00:00Z");
+		friends = new ArrayList<>(rows);
+		ideas = new ArrayList<>(rows);
+		Friend friend = null;
+		for (int i = 0; i < rows; i++) {
+			friend = new Friend(Ids.next(), owner, "Ami " + i, now.plusSeconds(i));
+			friends.add(friend);
+		}
+		for (int i = 0; i < rows; i++) {
+			ideas.add(new GiftIdea(Ids.next(), friend, "Livre de cuisine italienne, tome " + i, now.plusMillis(i)));
+		}
+	}
+
+	@Benchmark
+	public String normalizeUsername() {
+		return UserStore.normalizeUsername(username);
+	}
+
+	@Benchmark
+	public String normalizeUsernameRejected() {
+		return UserStore.normalizeUsername(badUsername);
+	}
+
+	@Benchmark
+	public boolean usernamePrecompiled() {
+		return USERNAME.matcher(username.trim()).matches();
+	}
+
+	@Benchmark
+	public String normalizeName() {
+		return UserStore.normalizeName(name);
+	}
+
+	@Benchmark
+	public List<FriendDto> mapFriends() {
+		return friends.stream()
+				.map(UserStore::toDto)
+				.toList();
+	}
+
+	@Benchmark
+	public List<GiftIdeaDto> mapIdeas() {
+		return ideas.stream()
+				.map(UserStore::toDto)
+				.toList();
+	}
+}
@@ -0,0 +1,123 @@
+package com.friendgift.api;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to measured latency, after the "gradient" limiters of Netflix's
+ * concurrency-limits: the ratio of the long-term round trip to the recent one says whether requests
+ * are queueing somewhere. While it stays within {@code tolerance} the limit creeps up by about
+ * {@code sqrt(limit)}; once the recent round trip exceeds {@code tolerance} times the long-term one
+ * the limit shrinks in proportion (at most by half per sample, before smoothing).
+ * <p>
+ * Lock-free: in-flight requests are a CAS-guarded counter and the estimate is an immutable snapshot
+ * replaced by compare-and-set, so neither admission nor release ever blocks.
+ */
+public final class AdaptiveLimiter {
+	private static final double SMOOTHING = 0.2;
+	private static final int SHORT_WINDOW = 10;
+	private static final int LONG_WINDOW = 600;
+
+	private static final class Estimate {
+		final double limit;
+		final double shortRtt;
+		final double longRtt;
+		final long samples;
+
+		Estimate(double limit, double shortRtt, double longRtt, long samples) {
+			this.limit = limit;
+			this.shortRtt = shortRtt;
+			this.longRtt = longRtt;
+			this.samples = samples;
+		}
+	}
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double tolerance;
+	private final AtomicInteger inflight = new AtomicInteger();
+	private final LongAdder rejected = new LongAdder();
+	private final AtomicReference<Estimate> estimate;
+
+	public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.tolerance = tolerance;
+		this.estimate = new AtomicReference<>(new Estimate(clamp(initialLimit), 0, 0, 0));
+	}
+
+	/**
+	 * Takes a slot, or returns false (and counts a rejection) when the limit is reached. Every
+	 * successful call must be followed by exactly one {@link #release}.
+	 */
+	public boolean tryAcquire() {
+		int limit = limit();
+		while (true) {
+			int current = inflight.get();
+			if (current >= limit) {
+				rejected.increment();
+				return false;
+			}
+			if (inflight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Frees the slot and feeds the round trip into the estimate; a negative {@code rttNanos} frees the
+	 * slot without a sample (the request failed before producing a meaningful latency).
+	 */
+	public void release(long rttNanos) {
+		int inflightBefore = inflight.getAndDecrement();
+		if (rttNanos >= 0) {
+			estimate.updateAndGet(e -> next(e, rttNanos, inflightBefore));
+		}
+	}
+
+	public int limit() {
+		return (int) estimate.get().limit;
+	}
+
+	public int inflight() {
+		return inflight.get();
+	}
+
+	public long rejected() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Seconds a rejected client should wait: about one recent round trip, at least one second.
+	 */
+	public long retryAfterSeconds() {
+		return Math.max(1, (long) Math.ceil(estimate.get().shortRtt / 1e9));
+	}
+
+	private Estimate next(Estimate e, long rtt, int inflightBefore) {
+		long samples = e.samples + 1;
+		double shortRtt = e.samples == 0 ? rtt : e.shortRtt + (rtt - e.shortRtt) / Math.min(samples, SHORT_WINDOW);
+		double longRtt = e.samples == 0 ? rtt : e.longRtt + (rtt - e.longRtt) / Math.min(samples, LONG_WINDOW);
+
+		// Under a sustained change the long average catches up with the short one and would hide it:
+		// pull it down quickly once latency recovers, so the limit can grow again.
+		if (longRtt > 2 * shortRtt) {
+			longRtt *= 0.95;
+		}
+
+		// Not using half the limit: latency says nothing about the limit, keep it.
+		if (inflightBefore < e.limit / 2) {
+			return new Estimate(e.limit, shortRtt, longRtt, samples);
+		}
+
+		double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+		double target = e.limit * gradient + Math.sqrt(e.limit);
+		double limit = clamp(e.limit * (1 - SMOOTHING) + target * SMOOTHING);
+		return new Estimate(limit, shortRtt, longRtt, samples);
+	}
+
+	private double clamp(double limit) {
+		return Math.max(minLimit, Math.min(maxLimit, limit));
+	}
+}
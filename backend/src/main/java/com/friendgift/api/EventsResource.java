@@ -0,0 +1,43 @@
+package com.friendgift.api;
+
+import com.friendgift.data.ChangeBroker;
+import com.friendgift.data.ChangeEventDto;
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+/**
+ * Server-sent events for the caller's friends and ideas: {@code ready} when the stream opens, then one
+ * event per committed change, named after {@link ChangeEventDto#type}. Runs on the event loop (a
+ * {@link Multi} return type), so an idle stream costs a connection and a small buffer, not a thread.
+ */
+@Path("/api/events")
+public class EventsResource {
+	@Inject
+	ChangeBroker broker;
+
+	@Inject
+	JsonWebToken jwt;
+
+	@GET
+	@RolesAllowed("user")
+	@Produces(MediaType.SERVER_SENT_EVENTS)
+	public Multi<OutboundSseEvent> stream(@Context Sse sse) {
+		return broker.subscribe(jwt.getName())
+				.map(event -> event == ChangeBroker.HEARTBEAT
+						? sse.newEventBuilder().comment("ping").build()
+						: sse.newEventBuilder()
+								.name(event.type)
+								.mediaType(MediaType.APPLICATION_JSON_TYPE)
+								.data(ChangeEventDto.class, event)
+								.build());
+	}
+}
@@ -0,0 +1,40 @@
+package com.friendgift.api;
+
+import com.friendgift.data.FriendUpsertRequest;
+import com.friendgift.data.UserStore;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import java.util.List;
+
+/**
+ * Bulk creation of friends. The body is a JSON array of {@code {"name": ...}}; the response lists one
+ * {@link com.friendgift.data.BatchItem} per element, so valid items are created even if others are not.
+ */
+@Path("/api/friends:batch")
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class FriendsBatchResource {
+	@Inject
+	UserStore userStore;
+
+	@Inject
+	JsonWebToken jwt;
+
+	@POST
+	@RolesAllowed("user")
+	public Response addFriends(List<FriendUpsertRequest> requests) {
+		return userStore.addFriends(jwt.getName(), requests)
+				.map(results -> Response.ok(results).build())
+				.orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+	}
+}
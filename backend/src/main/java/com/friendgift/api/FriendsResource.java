@@ -1,8 +1,12 @@
 package com.friendgift.api;
 
+import com.friendgift.data.ChangeVersions;
+import com.friendgift.data.CursorPage;
 import com.friendgift.data.FriendDto;
 import com.friendgift.data.FriendUpsertRequest;
 import com.friendgift.data.UserStore;
+import com.friendgift.data.WriteResult;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
@@ -13,26 +17,77 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 
-import java.util.List;
-
 @Path("/api/friends")
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class FriendsResource {
+	static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
 	@Inject
 	UserStore userStore;
 
+	@Inject
+	ChangeVersions changeVersions;
+
 	@Inject
 	JsonWebToken jwt;
 
 	@GET
 	@RolesAllowed("user")
-	public List<FriendDto> listFriends() {
-		return userStore.listFriends(jwt.getName());
+	public Response listFriends(@QueryParam("cursor") String cursor,
+			@QueryParam("limit") Integer limit,
+			@Context Request request) {
+		EntityTag tag = new EntityTag(changeVersions.friendsVersion(jwt.getName()), true);
+		Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+		if (notModified != null) {
+			return notModified.tag(tag).cacheControl(revalidate()).build();
+		}
+		return userStore.listFriends(jwt.getName(), cursor, limit)
+				.map(page -> pageResponse(page, tag))
+				.orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+	}
+
+	/**
+	 * Friends with their idea count and newest idea; paginated like {@link #listFriends}.
+	 */
+	@GET
+	@Path("/overview")
+	@RolesAllowed("user")
+	public Response listFriendsOverview(@QueryParam("cursor") String cursor,
+			@QueryParam("limit") Integer limit,
+			@Context Request request) {
+		EntityTag tag = new EntityTag(changeVersions.overviewVersion(jwt.getName()), true);
+		Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+		if (notModified != null) {
+			return notModified.tag(tag).cacheControl(revalidate()).build();
+		}
+		return userStore.listFriendsOverview(jwt.getName(), cursor, limit)
+				.map(page -> pageResponse(page, tag))
+				.orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+	}
+
+	@GET
+	@Path("/{friendId}")
+	@RolesAllowed("user")
+	public Response getFriend(@PathParam("friendId") String friendId, @Context Request request) {
+		EntityTag tag = new EntityTag(changeVersions.overviewVersion(jwt.getName()), true);
+		Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+		if (notModified != null) {
+			return notModified.tag(tag).cacheControl(revalidate()).build();
+		}
+		return userStore.getFriendOverview(jwt.getName(), friendId)
+				.map(dto -> Response.ok(dto).tag(tag).cacheControl(revalidate()).build())
+				.orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
 	}
 
 	@POST
@@ -55,13 +110,13 @@ public class FriendsResource {
 		}
 
 		// Distinguish between "not found" and "bad input" for a nicer client UX.
-		if (userStore.findFriend(jwt.getName(), friendId).isEmpty()) {
-			return Response.status(Response.Status.NOT_FOUND).build();
-		}
-
-		return userStore.updateFriend(jwt.getName(), friendId, request.name)
-				.map(dto -> Response.ok(dto).build())
-				.orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+		WriteResult<FriendDto> result = userStore.updateFriend(jwt.getName(), friendId, request.name);
+		return switch (result.status) {
+			case OK -> Response.ok(result.value).build();
+			case NOT_FOUND -> Response.status(Response.Status.NOT_FOUND).build();
+			case INVALID -> Response.status(Response.Status.BAD_REQUEST).build();
+			case CONFLICT -> Response.status(Response.Status.CONFLICT).build();
+		};
 	}
 
 	@DELETE
@@ -74,4 +129,29 @@ public class FriendsResource {
 		boolean deleted = userStore.deleteFriend(jwt.getName(), friendId);
 		return deleted ? Response.noContent().build() : Response.status(Response.Status.NOT_FOUND).build();
 	}
+
+	/**
+	 * The body stays a plain JSON array; the keyset position of the following page travels in a header.
+	 * The tag must have been read before the page was loaded, so a concurrent write can only make it
+	 * stale (next request misses), never pair old data with a newer version.
+	 */
+	static Response pageResponse(CursorPage<?> page, EntityTag tag) {
+		Response.ResponseBuilder builder = Response.ok(page.items)
+				.tag(tag)
+				.cacheControl(revalidate());
+		if (page.next != null) {
+			builder.header(NEXT_CURSOR_HEADER, page.next);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Lets browsers keep the list but revalidate it with If-None-Match on every use.
+	 */
+	static CacheControl revalidate() {
+		CacheControl cacheControl = new CacheControl();
+		cacheControl.setPrivate(true);
+		cacheControl.setNoCache(true);
+		return cacheControl;
+	}
 }
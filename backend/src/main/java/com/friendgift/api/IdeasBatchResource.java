@@ -0,0 +1,47 @@
+package com.friendgift.api;
+
+import com.friendgift.data.BatchItem;
+import com.friendgift.data.GiftIdeaDto;
+import com.friendgift.data.NewGiftIdeaRequest;
+import com.friendgift.data.UserStore;
+import com.friendgift.data.WriteResult;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import java.util.List;
+
+/**
+ * Bulk creation of gift ideas for one friend; same request/response shape as {@link FriendsBatchResource}.
+ */
+@Path("/api/friends/{friendId}/ideas:batch")
+@Consumes(MediaType.APPLICATION_JSON)
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class IdeasBatchResource {
+	@Inject
+	UserStore userStore;
+
+	@Inject
+	JsonWebToken jwt;
+
+	@POST
+	@RolesAllowed("user")
+	public Response addIdeas(@PathParam("friendId") String friendId, List<NewGiftIdeaRequest> requests) {
+		WriteResult<List<BatchItem<GiftIdeaDto>>> result = userStore.addIdeas(jwt.getName(), friendId, requests);
+		return switch (result.status) {
+			case OK -> Response.ok(result.value).build();
+			case NOT_FOUND -> Response.status(Response.Status.NOT_FOUND).build();
+			case INVALID -> Response.status(Response.Status.BAD_REQUEST).build();
+			case CONFLICT -> Response.status(Response.Status.CONFLICT).build();
+		};
+	}
+}
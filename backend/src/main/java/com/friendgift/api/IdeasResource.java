@@ -1,8 +1,12 @@
 package com.friendgift.api;
 
+import com.friendgift.data.ChangeVersions;
 import com.friendgift.data.GiftIdeaDto;
+import com.friendgift.data.IdeaGroupCommit;
 import com.friendgift.data.NewGiftIdeaRequest;
 import com.friendgift.data.UserStore;
+import com.friendgift.data.WriteResult;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
@@ -11,34 +15,75 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.jwt.JsonWebToken;
-
-import java.util.List;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
 
 @Path("/api/friends/{friendId}/ideas")
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class IdeasResource {
 	@Inject
 	UserStore userStore;
 
+	@Inject
+	ChangeVersions changeVersions;
+
 	@Inject
 	JsonWebToken jwt;
 
 	@GET
 	@RolesAllowed("user")
-	public List<GiftIdeaDto> listIdeas(@PathParam("friendId") String friendId) {
-		return userStore.listIdeas(jwt.getName(), friendId);
+	public Response listIdeas(@PathParam("friendId") String friendId,
+			@QueryParam("cursor") String cursor,
+			@QueryParam("limit") Integer limit,
+			@Context Request request) {
+		// No tag for a malformed id: its (empty) page has no version to revalidate against.
+		EntityTag tag = changeVersions.ideasVersion(jwt.getName(), friendId)
+				.map(version -> new EntityTag(version, true))
+				.orElse(null);
+		if (tag != null) {
+			Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+			if (notModified != null) {
+				return notModified.tag(tag).cacheControl(FriendsResource.revalidate()).build();
+			}
+		}
+		return userStore.listIdeas(jwt.getName(), friendId, cursor, limit)
+				.map(page -> FriendsResource.pageResponse(page, tag))
+				.orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
 	}
 
+	/**
+	 * 201 with the idea, carrying {@code duplicateOf} when the friend already had a near-identical one;
+	 * 409 with that existing idea instead when duplicates are rejected.
+	 */
 	@POST
 	@RolesAllowed("user")
 	public Response addIdea(@PathParam("friendId") String friendId, NewGiftIdeaRequest request) {
 		String text = request == null ? null : request.text;
-		return userStore.addIdea(jwt.getName(), friendId, text)
-				.map(dto -> Response.status(Response.Status.CREATED).entity(dto).build())
-				.orElse(Response.status(Response.Status.BAD_REQUEST).build());
+		WriteResult<GiftIdeaDto> result = userStore.addIdea(jwt.getName(), friendId, text);
+		return switch (result.status) {
+			case OK -> Response.status(Response.Status.CREATED).entity(result.value).build();
+			case NOT_FOUND -> Response.status(Response.Status.NOT_FOUND).build();
+			case INVALID -> Response.status(Response.Status.BAD_REQUEST).build();
+			case CONFLICT -> Response.status(Response.Status.CONFLICT).entity(result.value).build();
+		};
+	}
+
+	/**
+	 * The group commit writer did not take the insert in time: shed it like a saturated hashing pool.
+	 */
+	@ServerExceptionMapper
+	public Response groupCommitSaturated(IdeaGroupCommit.SaturatedException e) {
+		return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.build();
 	}
 }
@@ -0,0 +1,52 @@
+package com.friendgift.api;
+
+import com.friendgift.data.ChangeVersions;
+import com.friendgift.search.IdeaSearchIndex;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+@Path("/api/ideas/search")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class IdeasSearchResource {
+	@Inject
+	IdeaSearchIndex searchIndex;
+
+	@Inject
+	ChangeVersions changeVersions;
+
+	@Inject
+	JsonWebToken jwt;
+
+	/**
+	 * Ideas across all of the caller's friends matching every word of {@code q} (accents and case
+	 * ignored, last word as a prefix), best match first. Paginated with {@code cursor}/{@code limit}
+	 * like the lists; results change with any of the caller's writes, hence the overview version as tag.
+	 */
+	@GET
+	@RolesAllowed("user")
+	public Response search(@QueryParam("q") String q,
+			@QueryParam("cursor") String cursor,
+			@QueryParam("limit") Integer limit,
+			@Context Request request) {
+		EntityTag tag = new EntityTag(changeVersions.overviewVersion(jwt.getName()), true);
+		Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+		if (notModified != null) {
+			return notModified.tag(tag).cacheControl(FriendsResource.revalidate()).build();
+		}
+		return searchIndex.search(jwt.getName(), q, cursor, limit)
+				.map(page -> FriendsResource.pageResponse(page, tag))
+				.orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+	}
+}
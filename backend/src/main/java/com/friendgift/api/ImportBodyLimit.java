@@ -0,0 +1,110 @@
+package com.friendgift.api;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.vertx.http.runtime.RouteConstants;
+import io.quarkus.vertx.http.runtime.VertxHttpRecorder;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Body size cap of {@code POST /api/import}: {@code friendgift.import.max-body-size}, while every other
+ * route keeps {@code quarkus.http.limits.max-body-size}. Quarkus holds a declared Content-Length against
+ * its global limit before any route runs, so for this route the header is set aside just before that
+ * check and held against the import cap right after it. The body is then counted against the same cap
+ * as the import reads it, whether or not a length was declared.
+ */
+@ApplicationScoped
+public class ImportBodyLimit {
+	static final String PATH = "/api/import";
+	private static final String DECLARED_LENGTH = ImportBodyLimit.class.getName() + ".declared-length";
+
+	/** The import read past the cap; the lines before it are already imported. */
+	public static class BodyTooLargeException extends IOException {
+		BodyTooLargeException(long limit) {
+			super("Import body larger than " + limit + " bytes");
+		}
+	}
+
+	@ConfigProperty(name = "friendgift.import.max-body-size", defaultValue = "64M")
+	MemorySize maxBodySize;
+
+	void install(@Observes Router router) {
+		router.post(PATH).order(RouteConstants.ROUTE_ORDER_UPLOAD_LIMIT - 1).handler(this::setDeclaredLengthAside);
+		router.post(PATH).order(RouteConstants.ROUTE_ORDER_UPLOAD_LIMIT + 1).handler(this::applyImportLimit);
+	}
+
+	/**
+	 * {@code body}, failing with {@link BodyTooLargeException} once more than the import cap is read.
+	 */
+	public InputStream limit(InputStream body) {
+		long limit = maxBodySize.asLongValue();
+		return new FilterInputStream(body) {
+			private long read;
+
+			@Override
+			public int read() throws IOException {
+				int b = super.read();
+				if (b >= 0) {
+					count(1);
+				}
+				return b;
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				int n = super.read(buffer, offset, length);
+				if (n > 0) {
+					count(n);
+				}
+				return n;
+			}
+
+			private void count(int n) throws BodyTooLargeException {
+				read += n;
+				if (read > limit) {
+					throw new BodyTooLargeException(limit);
+				}
+			}
+		};
+	}
+
+	private void setDeclaredLengthAside(RoutingContext ctx) {
+		String length = ctx.request().headers().get(HttpHeaders.CONTENT_LENGTH);
+		if (length != null) {
+			ctx.put(DECLARED_LENGTH, length);
+			ctx.request().headers().remove(HttpHeaders.CONTENT_LENGTH);
+		}
+		ctx.next();
+	}
+
+	private void applyImportLimit(RoutingContext ctx) {
+		long limit = maxBodySize.asLongValue();
+		String declared = ctx.get(DECLARED_LENGTH);
+		if (declared != null) {
+			ctx.request().headers().set(HttpHeaders.CONTENT_LENGTH, declared);
+			if (declaredLength(declared) > limit) {
+				ctx.response().setStatusCode(413).putHeader(HttpHeaders.CONNECTION, "close").end();
+				return;
+			}
+		}
+		// Replaces the global limit Quarkus applies to bodies read without a declared length.
+		ctx.put(VertxHttpRecorder.MAX_REQUEST_SIZE_KEY, limit);
+		ctx.next();
+	}
+
+	private static long declaredLength(String header) {
+		try {
+			return Long.parseLong(header.trim());
+		} catch (NumberFormatException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.friendgift.api;
+
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+
+/**
+ * Admission control in front of every {@code /api} route, on the event loop and before any resource
+ * work is queued: sign-in/sign-up and data calls each have their own {@link AdaptiveLimiter}, so a
+ * login storm (bcrypt) cannot starve reads and slow queries cannot block logins. Over the limit, the
+ * request is answered 503 with {@code Retry-After} straight away.
+ * <p>
+ * Long-lived transfers are left out: they would hold a slot for minutes and skew the latency signal.
+ */
+@ApplicationScoped
+public class OverloadProtection {
+	private static final String AUTH_PREFIX = "/api/auth/";
+
+	@ConfigProperty(name = "friendgift.limiter.enabled", defaultValue = "true")
+	boolean enabled;
+
+	@ConfigProperty(name = "friendgift.limiter.tolerance", defaultValue = "2.0")
+	double tolerance;
+
+	@ConfigProperty(name = "friendgift.limiter.auth.initial-limit", defaultValue = "20")
+	int authInitialLimit;
+
+	@ConfigProperty(name = "friendgift.limiter.auth.min-limit", defaultValue = "4")
+	int authMinLimit;
+
+	@ConfigProperty(name = "friendgift.limiter.auth.max-limit", defaultValue = "200")
+	int authMaxLimit;
+
+	@ConfigProperty(name = "friendgift.limiter.data.initial-limit", defaultValue = "50")
+	int dataInitialLimit;
+
+	@ConfigProperty(name = "friendgift.limiter.data.min-limit", defaultValue = "10")
+	int dataMinLimit;
+
+	@ConfigProperty(name = "friendgift.limiter.data.max-limit", defaultValue = "1000")
+	int dataMaxLimit;
+
+	@ConfigProperty(name = "friendgift.limiter.excluded-paths", defaultValue = "/api/export,/api/import,/api/events")
+	List<String> excludedPaths;
+
+	private AdaptiveLimiter auth;
+	private AdaptiveLimiter data;
+
+	@PostConstruct
+	void init() {
+		auth = new AdaptiveLimiter(authInitialLimit, authMinLimit, authMaxLimit, tolerance);
+		data = new AdaptiveLimiter(dataInitialLimit, dataMinLimit, dataMaxLimit, tolerance);
+	}
+
+	void install(@Observes Router router) {
+		if (enabled) {
+			router.route("/api/*").order(-10).handler(this::admit);
+		}
+	}
+
+	public AdaptiveLimiter auth() {
+		return auth;
+	}
+
+	public AdaptiveLimiter data() {
+		return data;
+	}
+
+	private void admit(RoutingContext ctx) {
+		String path = ctx.normalizedPath();
+		if (excludedPaths.contains(path)) {
+			ctx.next();
+			return;
+		}
+		AdaptiveLimiter limiter = path.startsWith(AUTH_PREFIX) ? auth : data;
+		if (!limiter.tryAcquire()) {
+			ctx.response()
+					.setStatusCode(503)
+					.putHeader("Retry-After", Long.toString(limiter.retryAfterSeconds()))
+					.end();
+			return;
+		}
+		long start = System.nanoTime();
+		ctx.addEndHandler(result -> limiter.release(result.succeeded() ? System.nanoTime() - start : -1));
+		ctx.next();
+	}
+}
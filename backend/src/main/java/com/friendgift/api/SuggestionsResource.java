@@ -0,0 +1,31 @@
+package com.friendgift.api;
+
+import com.friendgift.search.GiftSuggestions;
+import io.smallrye.common.annotation.NonBlocking;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+import java.util.List;
+
+@Path("/api/suggestions")
+@Produces(MediaType.APPLICATION_JSON)
+public class SuggestionsResource {
+	@Inject
+	GiftSuggestions suggestions;
+
+	/**
+	 * Gift phrases for the idea input, called on every keystroke; a plain JSON array of strings.
+	 * The lookup is an in-memory walk of a few microseconds, so it runs on the I/O thread.
+	 */
+	@GET
+	@NonBlocking
+	@RolesAllowed("user")
+	public List<String> suggest(@QueryParam("prefix") String prefix, @QueryParam("limit") Integer limit) {
+		return suggestions.suggest(prefix, limit);
+	}
+}
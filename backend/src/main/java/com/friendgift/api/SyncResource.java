@@ -0,0 +1,40 @@
+package com.friendgift.api;
+
+import com.friendgift.data.DeltaSync;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+@Path("/api/sync")
+@Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+public class SyncResource {
+	@Inject
+	DeltaSync deltaSync;
+
+	@Inject
+	JsonWebToken jwt;
+
+	/**
+	 * Friends and ideas changed since the token {@code since} (the whole account without one), with the
+	 * token to send next time. 400 for a token this endpoint did not issue.
+	 */
+	@GET
+	@RolesAllowed("user")
+	public Response sync(@QueryParam("since") String since) {
+		CacheControl noStore = new CacheControl();
+		noStore.setPrivate(true);
+		noStore.setNoStore(true);
+		return deltaSync.sync(jwt.getName(), since)
+				.map(result -> Response.ok(result).cacheControl(noStore).build())
+				.orElseGet(() -> Response.status(Response.Status.BAD_REQUEST).build());
+	}
+}
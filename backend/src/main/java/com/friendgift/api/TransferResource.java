@@ -0,0 +1,64 @@
+package com.friendgift.api;
+
+import com.friendgift.data.AccountTransfer;
+import com.friendgift.data.ImportSummaryDto;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Download and restore of a whole account as NDJSON (see {@link AccountTransfer}). Neither direction
+ * buffers the body: the export is written while the cursor is read, the import is parsed as it arrives.
+ */
+@Path("/api")
+@RunOnVirtualThread
+public class TransferResource {
+	@Inject
+	AccountTransfer accountTransfer;
+
+	@Inject
+	ImportBodyLimit importBodyLimit;
+
+	@Inject
+	JsonWebToken jwt;
+
+	@GET
+	@Path("/export")
+	@Produces(AccountTransfer.NDJSON)
+	@RolesAllowed("user")
+	public Response export() {
+		String username = jwt.getName();
+		StreamingOutput body = out -> accountTransfer.export(username, out);
+		return Response.ok(body)
+				.header("Content-Disposition", "attachment; filename=\"friendgift-" + username + ".ndjson\"")
+				.build();
+	}
+
+	@POST
+	@Path("/import")
+	@Consumes(AccountTransfer.NDJSON)
+	@Produces(MediaType.APPLICATION_JSON)
+	@RolesAllowed("user")
+	public Response importAccount(InputStream body) throws IOException {
+		ImportSummaryDto summary;
+		try {
+			summary = accountTransfer.importFrom(jwt.getName(), importBodyLimit.limit(body));
+		} catch (ImportBodyLimit.BodyTooLargeException e) {
+			return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE).build();
+		}
+		Response.Status status = summary.failedAtLine == null ? Response.Status.OK : Response.Status.BAD_REQUEST;
+		return Response.status(status).entity(summary).build();
+	}
+}
@@ -0,0 +1,32 @@
+package com.friendgift.auth;
+
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * For users listed in {@code friendgift.admins}: signs a user out everywhere.
+ */
+@Path("/api/admin/users/{username}/tokens")
+@RunOnVirtualThread
+public class AdminTokensResource {
+	@Inject
+	TokenRevocations revocations;
+
+	/**
+	 * Revokes every token issued to the user so far ({@code iat} is in seconds, so this includes the
+	 * current second); later logins get valid tokens again.
+	 */
+	@DELETE
+	@RolesAllowed("admin")
+	public Response revokeAll(@PathParam("username") String username) {
+		if (!revocations.revokeAll(username)) {
+			return Response.status(Response.Status.NOT_FOUND).build();
+		}
+		return Response.noContent().build();
+	}
+}
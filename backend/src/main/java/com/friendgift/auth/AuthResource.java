@@ -1,27 +1,39 @@
 package com.friendgift.auth;
 
 import com.friendgift.data.UserStore;
-import io.smallrye.jwt.build.Jwt;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.PermitAll;
+import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
 
-import java.time.Duration;
 import java.time.Instant;
-import java.util.Set;
 
 @Path("/api/auth")
 @Consumes(MediaType.APPLICATION_JSON)
 @Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class AuthResource {
 	@Inject
 	UserStore userStore;
 
+	@Inject
+	TokenIssuer tokenIssuer;
+
+	@Inject
+	TokenRevocations revocations;
+
+	@Inject
+	JsonWebToken jwt;
+
 	@POST
 	@Path("/register")
 	@PermitAll
@@ -38,12 +50,7 @@ public class AuthResource {
 			return Response.status(Response.Status.CONFLICT).build();
 		}
 
-		String token = Jwt.issuer("friendgift-app")
-				.upn(request.username)
-				.subject(request.username)
-				.groups(Set.of("user"))
-				.expiresAt(Instant.now().plus(Duration.ofHours(8)))
-				.sign();
+		String token = tokenIssuer.issue(request.username);
 
 		return Response.status(Response.Status.CREATED).entity(new LoginResponse(token)).build();
 	}
@@ -56,13 +63,33 @@ public class AuthResource {
 			return Response.status(Response.Status.UNAUTHORIZED).build();
 		}
 
-		String token = Jwt.issuer("friendgift-app")
-				.upn(request.username)
-				.subject(request.username)
-				.groups(Set.of("user"))
-				.expiresAt(Instant.now().plus(Duration.ofHours(8)))
-				.sign();
+		String token = tokenIssuer.issue(request.username);
 
 		return Response.ok(new LoginResponse(token)).build();
 	}
+
+	/**
+	 * Revokes the token this request carries; other sessions of the user stay signed in.
+	 */
+	@POST
+	@Path("/logout")
+	@RolesAllowed("user")
+	public Response logout() {
+		if (jwt.getTokenID() == null) {
+			// Issued before tokens carried a jti: it cannot be revoked alone.
+			return Response.status(Response.Status.BAD_REQUEST).build();
+		}
+		revocations.revoke(jwt.getTokenID(), jwt.getName(), Instant.ofEpochSecond(jwt.getExpirationTime()));
+		return Response.noContent().build();
+	}
+
+	/**
+	 * The hashing pool is full: shed the request rather than queue it behind the CPU.
+	 */
+	@ServerExceptionMapper
+	public Response hashingSaturated(PasswordHasher.SaturatedException e) {
+		return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.build();
+	}
 }
@@ -0,0 +1,51 @@
+package com.friendgift.auth;
+
+import com.friendgift.data.Hashing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings: {@link #mightContain} never misses a key that was added, and
+ * answers true for a key that was not with about the false-positive rate it was sized for, as long as
+ * no more than the expected number of keys are added. Adds and lookups may run concurrently.
+ */
+final class BloomFilter {
+	private final AtomicLongArray words;
+	private final long bitCount;
+	private final int hashes;
+
+	BloomFilter(int expectedKeys, double falsePositiveRate) {
+		int n = Math.max(1, expectedKeys);
+		long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		words = new AtomicLongArray((int) Math.max(1, (bits + 63) / 64));
+		bitCount = words.length() * 64L;
+		hashes = Math.max(1, (int) Math.round(bitCount / (double) n * Math.log(2)));
+	}
+
+	void add(String key) {
+		long h1 = hash(key);
+		long h2 = Hashing.mix(h1) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitCount);
+			long mask = 1L << bit;
+			words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+		}
+	}
+
+	boolean mightContain(String key) {
+		long h1 = hash(key);
+		long h2 = Hashing.mix(h1) | 1;
+		for (int i = 0; i < hashes; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitCount);
+			if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** FNV-1a, then mixed so that similar keys (UUIDs differ in a few characters) spread out. */
+	private static long hash(String key) {
+		return Hashing.mix(Hashing.fnv1a(key, 0, key.length()));
+	}
+}
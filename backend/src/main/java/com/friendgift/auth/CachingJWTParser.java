@@ -0,0 +1,112 @@
+package com.friendgift.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.smallrye.jwt.auth.principal.DefaultJWTParser;
+import io.smallrye.jwt.auth.principal.ParseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replaces the default parser used by the bearer-token mechanism: a token whose signature was already
+ * verified is served from a bounded cache, keyed by the SHA-256 of the raw token, until its {@code exp}
+ * or {@code ttl} is reached. Anything not in the cache (including any tampered variant of a cached token,
+ * whose digest differs) goes through full verification.
+ */
+@Alternative
+@Priority(1)
+@ApplicationScoped
+public class CachingJWTParser extends DefaultJWTParser {
+	@ConfigProperty(name = "friendgift.jwt.cache.max-size", defaultValue = "10000")
+	long maxSize;
+
+	@ConfigProperty(name = "friendgift.jwt.cache.ttl", defaultValue = "10m")
+	Duration ttl;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private Cache<String, JsonWebToken> verified;
+
+	@PostConstruct
+	void init() {
+		verified = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new Expiry<String, JsonWebToken>() {
+					@Override
+					public long expireAfterCreate(String key, JsonWebToken jwt, long currentTime) {
+						long untilExpiry = TimeUnit.SECONDS.toNanos(jwt.getExpirationTime()) - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+						return Math.max(0, Math.min(ttl.toNanos(), untilExpiry));
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, JsonWebToken jwt, long currentTime, long currentDuration) {
+						return expireAfterCreate(key, jwt, currentTime);
+					}
+
+					@Override
+					public long expireAfterRead(String key, JsonWebToken jwt, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.build();
+	}
+
+	@Override
+	public JsonWebToken parse(String bearerToken) throws ParseException {
+		String key = digest(bearerToken);
+		JsonWebToken cached = verified.getIfPresent(key);
+		if (cached != null) {
+			// Eviction runs lazily; never hand out a token that has expired in the meantime.
+			if (!isExpired(cached)) {
+				hits.increment();
+				return cached;
+			}
+			verified.invalidate(key);
+		}
+
+		misses.increment();
+		JsonWebToken jwt = super.parse(bearerToken);
+		if (!isExpired(jwt)) {
+			verified.put(key, jwt);
+		}
+		return jwt;
+	}
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	public long size() {
+		return verified.estimatedSize();
+	}
+
+	private static boolean isExpired(JsonWebToken jwt) {
+		return jwt.getExpirationTime() * 1000 <= System.currentTimeMillis();
+	}
+
+	private static String digest(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
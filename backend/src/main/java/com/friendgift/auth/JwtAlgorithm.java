@@ -0,0 +1,64 @@
+package com.friendgift.auth;
+
+import io.smallrye.jwt.algorithm.SignatureAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+
+/**
+ * Token signature algorithms we can issue and verify, selected with {@code friendgift.jwt.algorithm}.
+ * RSA signing is by far the slowest of the three; ES256 and EdDSA keys are also much smaller.
+ */
+public enum JwtAlgorithm {
+	RS256("RS256", "RSA", SignatureAlgorithm.RS256),
+	ES256("ES256", "EC", SignatureAlgorithm.ES256),
+	EDDSA("EdDSA", "Ed25519", SignatureAlgorithm.EDDSA);
+
+	/** JOSE {@code alg} name, as used in configuration. */
+	public final String joseName;
+	final String keyAlgorithm;
+	final SignatureAlgorithm signatureAlgorithm;
+
+	JwtAlgorithm(String joseName, String keyAlgorithm, SignatureAlgorithm signatureAlgorithm) {
+		this.joseName = joseName;
+		this.keyAlgorithm = keyAlgorithm;
+		this.signatureAlgorithm = signatureAlgorithm;
+	}
+
+	public static JwtAlgorithm fromJoseName(String name) {
+		for (JwtAlgorithm algorithm : values()) {
+			if (algorithm.joseName.equalsIgnoreCase(name)) {
+				return algorithm;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported JWT algorithm: " + name + " (expected RS256, ES256 or EdDSA)");
+	}
+
+	KeyPair generateKeyPair() throws GeneralSecurityException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+		switch (this) {
+			case RS256 -> generator.initialize(2048);
+			case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+			case EDDSA -> {
+				// Ed25519 has no parameters.
+			}
+		}
+		return generator.generateKeyPair();
+	}
+
+	/**
+	 * Whether a DER-encoded public key is of the type this algorithm signs with.
+	 */
+	boolean accepts(byte[] publicKeyDer) {
+		try {
+			KeyFactory.getInstance(keyAlgorithm).generatePublic(new X509EncodedKeySpec(publicKeyDer));
+			return true;
+		} catch (GeneralSecurityException e) {
+			return false;
+		}
+	}
+}
@@ -3,31 +3,37 @@ package com.friendgift.auth;
 import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.KeyPair;
-import java.security.KeyPairGenerator;
 import java.util.Base64;
 
 @ApplicationScoped
 public class JwtKeysInitializer {
+	@ConfigProperty(name = "friendgift.jwt.algorithm", defaultValue = "RS256")
+	String algorithmName;
+
 	void onStart(@Observes StartupEvent event) {
 		try {
+			JwtAlgorithm algorithm = JwtAlgorithm.fromJoseName(algorithmName);
 			Path keysDir = Path.of("keys");
 			Path privateKeyPath = keysDir.resolve("privateKey.pem");
 			Path publicKeyPath = keysDir.resolve("publicKey.pem");
 
 			if (Files.exists(privateKeyPath) && Files.exists(publicKeyPath)) {
+				if (!algorithm.accepts(fromPem(Files.readString(publicKeyPath, StandardCharsets.US_ASCII)))) {
+					System.err.println("JWT keys under ./keys do not match friendgift.jwt.algorithm=" + algorithm.joseName
+							+ "; delete them to regenerate, or run tools/GenerateJwtKeys.java with that algorithm.");
+				}
 				return;
 			}
 
 			Files.createDirectories(keysDir);
 
-			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
-			generator.initialize(2048);
-			KeyPair keyPair = generator.generateKeyPair();
+			KeyPair keyPair = algorithm.generateKeyPair();
 
 			String privatePem = toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded());
 			String publicPem = toPem("PUBLIC KEY", keyPair.getPublic().getEncoded());
@@ -44,4 +50,9 @@ public class JwtKeysInitializer {
 		String base64 = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
 		return "-----BEGIN " + type + "-----\n" + base64 + "\n-----END " + type + "-----\n";
 	}
+
+	private static byte[] fromPem(String pem) {
+		String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+		return Base64.getDecoder().decode(base64);
+	}
 }
@@ -0,0 +1,157 @@
+package com.friendgift.auth;
+
+import io.quarkus.elytron.security.common.BcryptUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.wildfly.security.password.PasswordFactory;
+import org.wildfly.security.password.WildFlyElytronPasswordProvider;
+import org.wildfly.security.password.interfaces.BCryptPassword;
+import org.wildfly.security.password.util.ModularCrypt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * bcrypt hashing and verification on a dedicated, bounded pool. A login storm can use at most
+ * {@code workers} cores; beyond {@code queue-size} waiting jobs callers get {@link SaturatedException}
+ * straight away instead of piling up behind the CPU.
+ */
+@ApplicationScoped
+public class PasswordHasher {
+	private static final WildFlyElytronPasswordProvider PROVIDER = new WildFlyElytronPasswordProvider();
+
+	public enum Verification {
+		MISMATCH,
+		MATCH,
+		/** Correct password, but stored with other cost parameters (or in the legacy plaintext form). */
+		MATCH_NEEDS_REHASH
+	}
+
+	public static class SaturatedException extends RuntimeException {
+		SaturatedException(String message) {
+			super(message);
+		}
+	}
+
+	@ConfigProperty(name = "friendgift.password.bcrypt-cost", defaultValue = "10")
+	int cost;
+
+	@ConfigProperty(name = "friendgift.password.workers")
+	Optional<Integer> workers;
+
+	@ConfigProperty(name = "friendgift.password.queue-size", defaultValue = "64")
+	int queueSize;
+
+	@ConfigProperty(name = "friendgift.password.timeout-ms", defaultValue = "5000")
+	long timeoutMs;
+
+	private ThreadPoolExecutor executor;
+	/** Hash of a random password at the configured cost, for {@link #verifyUnknownUser}. */
+	private String dummyHash;
+
+	@PostConstruct
+	void start() {
+		int threads = workers.orElse(Runtime.getRuntime().availableProcessors());
+		AtomicInteger counter = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueSize),
+				task -> {
+					Thread thread = new Thread(task, "password-hasher-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		dummyHash = hash(UUID.randomUUID().toString(), cost);
+	}
+
+	@PreDestroy
+	void stop() {
+		executor.shutdownNow();
+	}
+
+	public String hash(String password) {
+		return run(() -> hash(password, cost));
+	}
+
+	public Verification verify(String password, String stored) {
+		return run(() -> verify(password, stored, cost));
+	}
+
+	/**
+	 * Always a mismatch, after the same work (and the same wait for a worker) as {@link #verify} on a real
+	 * account, so that login timing does not tell which usernames exist.
+	 */
+	public Verification verifyUnknownUser(String password) {
+		run(() -> verify(password, dummyHash, cost));
+		return Verification.MISMATCH;
+	}
+
+	/**
+	 * Jobs currently waiting for a worker.
+	 */
+	public int queueDepth() {
+		return executor.getQueue().size();
+	}
+
+	private <T> T run(Callable<T> job) {
+		Future<T> future;
+		try {
+			future = executor.submit(job);
+		} catch (RejectedExecutionException e) {
+			throw new SaturatedException("Password hashing queue is full");
+		}
+		try {
+			return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			throw new SaturatedException("Password hashing timed out");
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new SaturatedException("Interrupted while waiting for password hashing");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	static String hash(String password, int cost) {
+		return BcryptUtil.bcryptHash(password, cost);
+	}
+
+	static Verification verify(String password, String stored, int cost) {
+		if (stored == null) {
+			return Verification.MISMATCH;
+		}
+		if (!stored.startsWith("$2")) {
+			// Accounts created before hashing was introduced: upgrade them on their next successful login.
+			boolean equal = MessageDigest.isEqual(
+					password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+			return equal ? Verification.MATCH_NEEDS_REHASH : Verification.MISMATCH;
+		}
+		try {
+			PasswordFactory factory = PasswordFactory.getInstance(BCryptPassword.ALGORITHM_BCRYPT, PROVIDER);
+			BCryptPassword restored = (BCryptPassword) factory.translate(ModularCrypt.decode(stored));
+			if (!factory.verify(restored, password.toCharArray())) {
+				return Verification.MISMATCH;
+			}
+			return restored.getIterationCount() == cost ? Verification.MATCH : Verification.MATCH_NEEDS_REHASH;
+		} catch (GeneralSecurityException e) {
+			return Verification.MISMATCH;
+		}
+	}
+}
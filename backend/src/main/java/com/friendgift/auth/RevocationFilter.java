@@ -0,0 +1,42 @@
+package com.friendgift.auth;
+
+import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+/**
+ * Answers 401 to requests carrying a revoked token. Decided in memory by {@link TokenRevocations#check}
+ * for nearly every request; only a Bloom filter positive is confirmed in the database, off the event
+ * loop.
+ */
+public class RevocationFilter {
+	private static final Uni<Response> CONTINUE = Uni.createFrom().nullItem();
+
+	@Inject
+	SecurityIdentity identity;
+
+	@Inject
+	TokenRevocations revocations;
+
+	@ServerRequestFilter
+	Uni<Response> rejectRevokedTokens() {
+		if (!(identity.getPrincipal() instanceof JsonWebToken jwt)) {
+			return CONTINUE;
+		}
+		return switch (revocations.check(jwt)) {
+			case VALID -> CONTINUE;
+			case REVOKED -> Uni.createFrom().item(unauthorized());
+			case CONFIRM -> Uni.createFrom()
+					.item(() -> revocations.isRevokedInDatabase(jwt.getTokenID()) ? unauthorized() : null)
+					.runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+		};
+	}
+
+	private static Response unauthorized() {
+		return Response.status(Response.Status.UNAUTHORIZED).build();
+	}
+}
@@ -0,0 +1,50 @@
+package com.friendgift.auth;
+
+import io.smallrye.jwt.build.Jwt;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@ApplicationScoped
+public class TokenIssuer {
+	public static final String ISSUER = "friendgift-app";
+	public static final Duration LIFETIME = Duration.ofHours(8);
+
+	@ConfigProperty(name = "friendgift.jwt.algorithm", defaultValue = "RS256")
+	String algorithmName;
+
+	/** Users whose tokens also carry the {@code admin} group. */
+	@ConfigProperty(name = "friendgift.admins")
+	Optional<Set<String>> admins;
+
+	private JwtAlgorithm algorithm;
+
+	@PostConstruct
+	void init() {
+		algorithm = JwtAlgorithm.fromJoseName(algorithmName);
+	}
+
+	/**
+	 * A token with its own {@code jti}, so that it can be revoked alone (see {@link TokenRevocations}).
+	 */
+	public String issue(String username) {
+		Instant now = Instant.now();
+		boolean admin = admins.map(names -> names.contains(username)).orElse(false);
+		return Jwt.issuer(ISSUER)
+				.upn(username)
+				.subject(username)
+				.groups(admin ? Set.of("user", "admin") : Set.of("user"))
+				.claim("jti", UUID.randomUUID().toString())
+				.issuedAt(now)
+				.expiresAt(now.plus(LIFETIME))
+				.jws()
+				.algorithm(algorithm.signatureAlgorithm)
+				.sign();
+	}
+}
@@ -0,0 +1,195 @@
+package com.friendgift.auth;
+
+import com.friendgift.data.AppUserRepository;
+import com.friendgift.data.RevokedTokenRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Revoked tokens: single tokens by {@code jti} (logout), persisted in {@code revoked_token}, and every
+ * token of a user issued up to {@code app_user.revoked_before} (admin revocation).
+ * <p>
+ * Authenticated requests must not pay a database lookup for this. Per-user revocations are few and
+ * kept in memory in full. Revoked jti are fronted by a {@link BloomFilter}: a token it has never seen
+ * is known to be valid without any I/O, and only its rare positives (real revocations plus about
+ * {@code friendgift.revocation.bloom.false-positive-rate} of valid tokens) are confirmed in the
+ * database. Both are rebuilt from the database at startup and after each background prune of expired
+ * rows, which runs every {@code friendgift.revocation.prune-interval}.
+ * <p>
+ * The in-memory state is this instance's: with several instances, a revocation only reaches the
+ * others at their next prune.
+ */
+@ApplicationScoped
+public class TokenRevocations {
+	private static final Logger LOG = Logger.getLogger(TokenRevocations.class);
+
+	/** Outcome of the in-memory {@link #check}. */
+	public enum Check {
+		VALID,
+		REVOKED,
+		/** The Bloom filter has the jti: ask {@link #isRevokedInDatabase}. */
+		CONFIRM
+	}
+
+	@ConfigProperty(name = "friendgift.revocation.bloom.expected-tokens", defaultValue = "100000")
+	int expectedTokens;
+
+	@ConfigProperty(name = "friendgift.revocation.bloom.false-positive-rate", defaultValue = "0.001")
+	double falsePositiveRate;
+
+	@ConfigProperty(name = "friendgift.revocation.prune-interval", defaultValue = "10m")
+	Duration pruneInterval;
+
+	@Inject
+	RevokedTokenRepository revokedTokenRepository;
+
+	@Inject
+	AppUserRepository userRepository;
+
+	private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+	private final LongAdder databaseChecks = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private volatile BloomFilter revokedIds;
+	private ScheduledExecutorService pruner;
+
+	void onStart(@Observes StartupEvent event) {
+		rebuild();
+		pruner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "token-revocation-prune");
+			thread.setDaemon(true);
+			return thread;
+		});
+		pruner.scheduleWithFixedDelay(this::prune, pruneInterval.toMillis(), pruneInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		if (pruner != null) {
+			pruner.shutdownNow();
+		}
+	}
+
+	/**
+	 * In memory only; safe on the event loop.
+	 */
+	public Check check(JsonWebToken jwt) {
+		Instant before = revokedBefore.get(jwt.getName());
+		if (before != null && jwt.getIssuedAtTime() <= before.getEpochSecond()) {
+			rejected.increment();
+			return Check.REVOKED;
+		}
+		String jti = jwt.getTokenID();
+		BloomFilter filter = revokedIds;
+		if (jti == null || filter == null || !filter.mightContain(jti)) {
+			return Check.VALID;
+		}
+		return Check.CONFIRM;
+	}
+
+	/**
+	 * Blocking: one primary-key lookup.
+	 */
+	public boolean isRevokedInDatabase(String jti) {
+		databaseChecks.increment();
+		boolean revoked = QuarkusTransaction.requiringNew().call(() -> revokedTokenRepository.findById(jti) != null);
+		if (revoked) {
+			rejected.increment();
+		}
+		return revoked;
+	}
+
+	/**
+	 * Revokes one token until its own expiry. Idempotent, also when the same token is logged out
+	 * twice at once.
+	 */
+	public void revoke(String jti, String username, Instant expiresAt) {
+		try {
+			QuarkusTransaction.requiringNew().run(() -> revokedTokenRepository.upsert(jti, username, expiresAt));
+		} catch (RuntimeException e) {
+			// Concurrent merges of one new key can both try the insert; the loser fails, but the token is
+			// revoked all the same.
+			if (!QuarkusTransaction.requiringNew().call(() -> revokedTokenRepository.findById(jti) != null)) {
+				throw e;
+			}
+		}
+		// Added once committed, under the lock a rebuild holds while it reads and swaps the filter, so a
+		// revocation is never lost between the two.
+		synchronized (this) {
+			revokedIds.add(jti);
+		}
+	}
+
+	/**
+	 * Revokes every token of the user issued up to now. False when there is no such user.
+	 */
+	public boolean revokeAll(String username) {
+		Instant now = Instant.now();
+		if (QuarkusTransaction.requiringNew().call(() -> userRepository.revokeTokensIssuedBefore(username, now)) == 0) {
+			return false;
+		}
+		// Same lock as the rebuild, which replaces the map's content from what it read.
+		synchronized (this) {
+			revokedBefore.merge(username, now, (a, b) -> a.isAfter(b) ? a : b);
+		}
+		return true;
+	}
+
+	public long databaseChecks() {
+		return databaseChecks.sum();
+	}
+
+	public long rejected() {
+		return rejected.sum();
+	}
+
+	private void prune() {
+		try {
+			Instant now = Instant.now();
+			QuarkusTransaction.requiringNew().run(() -> {
+				revokedTokenRepository.deleteExpired(now);
+				userRepository.clearRevokedUpTo(now.minus(TokenIssuer.LIFETIME));
+			});
+			rebuild();
+		} catch (RuntimeException e) {
+			LOG.warn("Token revocation prune failed", e);
+		}
+	}
+
+	private synchronized void rebuild() {
+		Instant now = Instant.now();
+		List<String> ids = QuarkusTransaction.requiringNew().call(() -> {
+			try (Stream<String> rows = revokedTokenRepository.streamUnexpired(now)) {
+				return rows.toList();
+			}
+		});
+		// Headroom for the revocations to come before the next rebuild.
+		BloomFilter filter = new BloomFilter(Math.max(expectedTokens, ids.size() * 2), falsePositiveRate);
+		ids.forEach(filter::add);
+		revokedIds = filter;
+
+		Instant oldestAlive = now.minus(TokenIssuer.LIFETIME);
+		Map<String, Instant> users = new ConcurrentHashMap<>();
+		QuarkusTransaction.requiringNew().call(() -> userRepository.listRevokedAfter(oldestAlive))
+				.forEach(row -> users.put((String) row[0], (Instant) row[1]));
+		revokedBefore.keySet().retainAll(users.keySet());
+		users.forEach((username, before) -> revokedBefore.merge(username, before, (a, b) -> a.isAfter(b) ? a : b));
+	}
+}
@@ -0,0 +1,171 @@
+package com.friendgift.data;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.runtime.TransactionConfiguration;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Export and import of everything an account owns, as NDJSON {@link TransferRecord} lines: each friend
+ * followed by its ideas. Both directions stream, so memory does not grow with the size of the account
+ * (an import only remembers the old-to-new id of each friend).
+ */
+@ApplicationScoped
+public class AccountTransfer {
+	public static final String NDJSON = "application/x-ndjson";
+	/** Lines per import transaction; each one is flushed as JDBC batches and then cleared. */
+	static final int IMPORT_CHUNK_SIZE = 500;
+
+	@Inject
+	FriendRepository friendRepository;
+
+	@Inject
+	GiftIdeaRepository giftIdeaRepository;
+
+	@Inject
+	Event<DataChanged> changes;
+
+	@Inject
+	ChangeLog changeLog;
+
+	@Inject
+	ObjectMapper objectMapper;
+
+	/**
+	 * Writes the account to {@code out} from a single forward-only cursor. Rows are projections, so
+	 * nothing accumulates in the persistence context however many there are.
+	 */
+	@Transactional
+	@TransactionConfiguration(timeout = 600)
+	public void export(String username, OutputStream out) throws IOException {
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+				Stream<Object[]> rows = friendRepository.streamExportRows(username)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.setRootValueSeparator(new SerializedString("\n"));
+			String currentFriend = null;
+			Iterator<Object[]> it = rows.iterator();
+			while (it.hasNext()) {
+				Object[] row = it.next();
+				String friendId = row[0].toString();
+				if (!friendId.equals(currentFriend)) {
+					generator.writeObject(TransferRecord.friend(friendId, (String) row[1], row[2].toString()));
+					currentFriend = friendId;
+				}
+				if (row[3] != null) {
+					generator.writeObject(TransferRecord.idea(row[3].toString(), friendId, (String) row[4], row[5].toString()));
+				}
+			}
+			if (currentFriend != null) {
+				generator.writeRaw('\n');
+			}
+		}
+	}
+
+	/**
+	 * Adds the exported friends and ideas to the account under new ids, {@link #IMPORT_CHUNK_SIZE} lines
+	 * per transaction. Invalid lines are skipped; a malformed stream stops the import at that line, and
+	 * the lines before it stay imported.
+	 */
+	public ImportSummaryDto importFrom(String username, InputStream in) throws IOException {
+		ImportSummaryDto summary = new ImportSummaryDto();
+		Map<String, UUID> friendIds = new HashMap<>();
+		List<TransferRecord> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+		try (MappingIterator<TransferRecord> records = objectMapper.readerFor(TransferRecord.class).readValues(in)) {
+			while (records.hasNextValue()) {
+				chunk.add(records.nextValue());
+				if (chunk.size() == IMPORT_CHUNK_SIZE) {
+					importChunk(username, chunk, friendIds, summary);
+					chunk.clear();
+				}
+			}
+		} catch (JsonProcessingException e) {
+			summary.failedAtLine = e.getLocation() != null ? (long) e.getLocation().getLineNr() : 0L;
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(username, chunk, friendIds, summary);
+		}
+		return summary;
+	}
+
+	private void importChunk(String username, List<TransferRecord> chunk, Map<String, UUID> friendIds, ImportSummaryDto summary) {
+		long[] counts = new long[3];
+		Map<String, UUID> added = new HashMap<>();
+		QuarkusTransaction.requiringNew().run(() -> {
+			List<DataChanged> logged = new ArrayList<>(chunk.size());
+			EntityManager em = friendRepository.getEntityManager();
+			AppUser owner = em.getReference(AppUser.class, username);
+			for (TransferRecord record : chunk) {
+				if (record == null) {
+					counts[2]++;
+				} else if (TransferRecord.FRIEND.equals(record.type)) {
+					String name = UserStore.normalizeName(record.name);
+					if (name == null) {
+						counts[2]++;
+						continue;
+					}
+					Friend friend = new Friend(Ids.next(), owner, name, parseInstant(record.createdAt));
+					friendRepository.persist(friend);
+					if (record.id != null) {
+						added.put(record.id, friend.id);
+					}
+					logged.add(DataChanged.friendCreated(username, friend.id.toString(), friend.name, friend.createdAt));
+					counts[0]++;
+				} else if (TransferRecord.IDEA.equals(record.type)) {
+					UUID friendId = record.friendId == null ? null : added.getOrDefault(record.friendId, friendIds.get(record.friendId));
+					String text = UserStore.normalizeIdeaText(record.text);
+					if (friendId == null || text == null) {
+						counts[2]++;
+						continue;
+					}
+					GiftIdea idea = new GiftIdea(Ids.next(), em.getReference(Friend.class, friendId), text, parseInstant(record.createdAt));
+					giftIdeaRepository.persist(idea);
+					logged.add(DataChanged.ideaCreated(username, friendId.toString(), idea.id.toString(), idea.text, idea.createdAt));
+					counts[1]++;
+				} else {
+					counts[2]++;
+				}
+			}
+			changeLog.append(username, logged);
+			logged.forEach(changes::fire);
+			em.flush();
+			em.clear();
+		});
+		// Only once committed, so a failed chunk leaves neither ids nor counts behind.
+		friendIds.putAll(added);
+		summary.friends += counts[0];
+		summary.ideas += counts[1];
+		summary.skipped += counts[2];
+	}
+
+	private static Instant parseInstant(String value) {
+		if (value != null) {
+			try {
+				return Instant.parse(value);
+			} catch (DateTimeParseException e) {
+				// Fall through: keep the line, date it now.
+			}
+		}
+		return Instant.now();
+	}
+}
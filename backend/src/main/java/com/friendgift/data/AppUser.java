@@ -5,6 +5,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+import java.time.Instant;
+
 @Entity
 @Table(name = "app_user")
 public class AppUser {
@@ -15,6 +17,17 @@ public class AppUser {
 	@Column(nullable = false, length = 72)
 	public String password;
 
+	/** Last number handed out to this user's {@link ChangeLogEntry change log}. */
+	@Column(nullable = false)
+	public long changeSeq;
+
+	/** Entries up to this number have been pruned from the change log; older sync tokens get a snapshot. */
+	@Column(nullable = false)
+	public long changeLogFloor;
+
+	/** Tokens of this user issued at or before this instant are revoked. */
+	public Instant revokedBefore;
+
 	public AppUser() {
 	}
 
@@ -3,6 +3,66 @@ package com.friendgift.data;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.time.Instant;
+import java.util.List;
+
 @ApplicationScoped
 public class AppUserRepository implements PanacheRepositoryBase<AppUser, String> {
+	/**
+	 * Adds {@code count} to the user's change sequence and returns the new value, in one statement. The
+	 * row stays locked until the transaction ends, so one user's writers commit in sequence order.
+	 */
+	public long advanceChangeSeq(String username, int count) {
+		return ((Number) getEntityManager()
+				.createNativeQuery("select change_seq from final table"
+						+ " (update app_user set change_seq = change_seq + ?1 where username = ?2)")
+				.setParameter(1, count)
+				.setParameter(2, username)
+				.getSingleResult()).longValue();
+	}
+
+	/**
+	 * 0 when there is no such user.
+	 */
+	public int revokeTokensIssuedBefore(String username, Instant before) {
+		return update("revokedBefore = ?1 where username = ?2", before, username);
+	}
+
+	/**
+	 * {@code [username, revokedBefore]} of users with a revocation after {@code after}.
+	 */
+	public List<Object[]> listRevokedAfter(Instant after) {
+		return getEntityManager()
+				.createQuery("select u.username, u.revokedBefore from AppUser u where u.revokedBefore > ?1", Object[].class)
+				.setParameter(1, after)
+				.getResultList();
+	}
+
+	/**
+	 * Clears revocations no token still alive can predate.
+	 */
+	public int clearRevokedUpTo(Instant upTo) {
+		return update("revokedBefore = null where revokedBefore <= ?1", upTo);
+	}
+
+	/**
+	 * {@code {changeLogFloor, changeSeq}}: the change log holds the user's entries above the first number
+	 * and up to the second. Both 0 when there is no such user.
+	 */
+	public long[] changeLogRange(String username) {
+		return getEntityManager()
+				.createQuery("select u.changeLogFloor, u.changeSeq from AppUser u where u.username = ?1", Object[].class)
+				.setParameter(1, username)
+				.getResultStream()
+				.findFirst()
+				.map(row -> new long[] {(Long) row[0], (Long) row[1]})
+				.orElse(new long[2]);
+	}
+
+	/**
+	 * Never lowers the floor, so concurrent prunes of the same user can land in any order.
+	 */
+	public int raiseChangeLogFloor(String username, long floor) {
+		return update("changeLogFloor = ?1 where username = ?2 and changeLogFloor < ?1", floor, username);
+	}
 }
@@ -0,0 +1,19 @@
+package com.friendgift.data;
+
+/**
+ * Per-item outcome of a bulk write, reported at the item's position in the request.
+ */
+public class BatchItem<T> {
+	public int index;
+	public WriteResult.Status status;
+	public T value;
+
+	public BatchItem() {
+	}
+
+	public BatchItem(int index, WriteResult.Status status, T value) {
+		this.index = index;
+		this.status = status;
+		this.value = value;
+	}
+}
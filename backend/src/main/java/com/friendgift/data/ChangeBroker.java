@@ -0,0 +1,126 @@
+package com.friendgift.data;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import io.vertx.core.Vertx;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process fan-out of committed {@link DataChanged} events to the owner's open event streams.
+ * <p>
+ * A stream is a Mutiny emitter behind a bounded buffer: publishing never blocks and never waits for a
+ * client. A client that falls {@code buffer-size} events behind (a stalled connection, a huge import)
+ * is evicted: its stream completes and it reconnects, reloading its lists on the {@code ready} event
+ * that opens every stream. Streams hold no thread; one shared timer sends the heartbeats that keep
+ * proxies from closing idle connections and surface dead ones.
+ */
+@ApplicationScoped
+public class ChangeBroker {
+	/** Sent every heartbeat interval; carries no change. */
+	public static final ChangeEventDto HEARTBEAT = new ChangeEventDto();
+
+	@ConfigProperty(name = "friendgift.events.buffer-size", defaultValue = "256")
+	int bufferSize;
+
+	@ConfigProperty(name = "friendgift.events.heartbeat", defaultValue = "25s")
+	Duration heartbeat;
+
+	@ConfigProperty(name = "friendgift.events.max-streams-per-user", defaultValue = "8")
+	int maxStreamsPerUser;
+
+	@Inject
+	Vertx vertx;
+
+	private final ConcurrentHashMap<String, Deque<MultiEmitter<? super ChangeEventDto>>> streams = new ConcurrentHashMap<>();
+	private final AtomicInteger open = new AtomicInteger();
+	private final LongAdder evicted = new LongAdder();
+	private long heartbeatTimer;
+
+	@PostConstruct
+	void init() {
+		heartbeatTimer = vertx.setPeriodic(heartbeat.toMillis(), id -> streams.values()
+				.forEach(userStreams -> userStreams.forEach(emitter -> emitter.emit(HEARTBEAT))));
+	}
+
+	@PreDestroy
+	void shutdown() {
+		vertx.cancelTimer(heartbeatTimer);
+		streams.values().forEach(userStreams -> userStreams.forEach(MultiEmitter::complete));
+	}
+
+	/**
+	 * Changes to {@code username}'s data from now on, starting with a {@link ChangeEventDto#READY} event. Past
+	 * {@code max-streams-per-user} open streams, the user's oldest one is closed.
+	 */
+	public Multi<ChangeEventDto> subscribe(String username) {
+		return Multi.createFrom().<ChangeEventDto>emitter(emitter -> register(username, emitter), BackPressureStrategy.ERROR)
+				.onOverflow().buffer(bufferSize)
+				.onFailure(BackPressureFailure.class).invoke(e -> evicted.increment())
+				.onFailure(BackPressureFailure.class).recoverWithCompletion();
+	}
+
+	public int openStreams() {
+		return open.get();
+	}
+
+	public long evictedStreams() {
+		return evicted.sum();
+	}
+
+	void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) DataChanged change) {
+		Deque<MultiEmitter<? super ChangeEventDto>> userStreams = streams.get(change.owner);
+		if (userStreams == null) {
+			return;
+		}
+		ChangeEventDto event = ChangeEventDto.of(change);
+		for (MultiEmitter<? super ChangeEventDto> emitter : userStreams) {
+			emitter.emit(event);
+		}
+	}
+
+	private void register(String username, MultiEmitter<? super ChangeEventDto> emitter) {
+		emitter.onTermination(() -> unregister(username, emitter));
+		Deque<MultiEmitter<? super ChangeEventDto>> userStreams = streams.compute(username, (key, current) -> {
+			Deque<MultiEmitter<? super ChangeEventDto>> value = current == null ? new ConcurrentLinkedDeque<>() : current;
+			value.addLast(emitter);
+			return value;
+		});
+		open.incrementAndGet();
+
+		ChangeEventDto ready = new ChangeEventDto();
+		ready.type = ChangeEventDto.READY;
+		emitter.emit(ready);
+
+		while (userStreams.size() > maxStreamsPerUser) {
+			MultiEmitter<? super ChangeEventDto> oldest = userStreams.pollFirst();
+			if (oldest != null) {
+				open.decrementAndGet();
+				oldest.complete();
+			}
+		}
+	}
+
+	private void unregister(String username, MultiEmitter<? super ChangeEventDto> emitter) {
+		streams.computeIfPresent(username, (key, userStreams) -> {
+			if (userStreams.remove(emitter)) {
+				open.decrementAndGet();
+			}
+			return userStreams.isEmpty() ? null : userStreams;
+		});
+	}
+}
@@ -0,0 +1,52 @@
+package com.friendgift.data;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Payload of a {@code /api/events} message; {@link #type} is also the SSE event name.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDto {
+	/** First event of every stream: changes before it may have been missed, so lists are reloaded. */
+	public static final String READY = "ready";
+	public static final String FRIEND_CREATED = "friend.created";
+	public static final String FRIEND_UPDATED = "friend.updated";
+	public static final String FRIEND_DELETED = "friend.deleted";
+	public static final String IDEA_CREATED = "idea.created";
+
+	public String type;
+	public String friendId;
+	/** Set for {@link #IDEA_CREATED}. */
+	public String ideaId;
+	/** Friend name for friend.created/friend.updated. */
+	public String name;
+	/** Idea text for {@link #IDEA_CREATED}. */
+	public String text;
+	public String createdAt;
+
+	public ChangeEventDto() {
+	}
+
+	static ChangeEventDto of(DataChanged change) {
+		ChangeEventDto event = new ChangeEventDto();
+		event.friendId = change.friendId;
+		event.createdAt = change.createdAt == null ? null : change.createdAt.toString();
+		switch (change.kind) {
+			case FRIEND_CREATED -> {
+				event.type = FRIEND_CREATED;
+				event.name = change.text;
+			}
+			case FRIEND_UPDATED -> {
+				event.type = FRIEND_UPDATED;
+				event.name = change.text;
+			}
+			case FRIEND_DELETED -> event.type = FRIEND_DELETED;
+			case IDEA_CREATED -> {
+				event.type = IDEA_CREATED;
+				event.ideaId = change.ideaId;
+				event.text = change.text;
+			}
+		}
+		return event;
+	}
+}
@@ -0,0 +1,56 @@
+package com.friendgift.data;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable record of every change to an owner's friends and ideas, read back by {@link DeltaSync}.
+ * Writers call {@link #append} inside the transaction that makes the changes: the owner's
+ * {@code change_seq} is advanced once for the whole list and each change gets the next number. Deleted
+ * friends keep their entry as a tombstone.
+ * <p>
+ * Only the last {@code friendgift.sync.retained-changes} to {@code 2 * retained-changes} entries of each
+ * user are kept: each time the sequence passes a multiple of {@code retained-changes}, the same append
+ * deletes the entries older than that and raises the user's {@code change_log_floor} to match. So the
+ * log stays bounded at the cost of two statements every {@code retained-changes} writes, and
+ * {@link DeltaSync} answers tokens below the floor with a full snapshot.
+ */
+@ApplicationScoped
+public class ChangeLog {
+	@ConfigProperty(name = "friendgift.sync.retained-changes", defaultValue = "1000")
+	int retainedChanges;
+
+	@Inject
+	AppUserRepository userRepository;
+
+	@Inject
+	ChangeLogRepository changeLogRepository;
+
+	void append(DataChanged change) {
+		append(change.owner, List.of(change));
+	}
+
+	/**
+	 * Numbers and stores {@code changes}, all made by {@code username}; the inserts go out as one JDBC batch.
+	 */
+	void append(String username, List<DataChanged> changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		long last = userRepository.advanceChangeSeq(username, changes.size());
+		long seq = last - changes.size();
+		if (seq / retainedChanges != last / retainedChanges && last > retainedChanges) {
+			long floor = last - retainedChanges;
+			changeLogRepository.deleteUpTo(username, floor);
+			userRepository.raiseChangeLogFloor(username, floor);
+		}
+		for (DataChanged change : changes) {
+			changeLogRepository.persist(new ChangeLogEntry(username, ++seq, change.kind,
+					UUID.fromString(change.friendId), change.ideaId == null ? null : UUID.fromString(change.ideaId)));
+		}
+	}
+}
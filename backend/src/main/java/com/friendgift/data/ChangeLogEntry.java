@@ -0,0 +1,72 @@
+package com.friendgift.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One change of an owner's data, numbered by the owner's {@code app_user.change_seq}; see {@link ChangeLog}.
+ */
+@Entity
+@Table(name = "change_log")
+@IdClass(ChangeLogEntry.Key.class)
+public class ChangeLogEntry {
+	@Id
+	@Column(name = "owner_username", length = 32)
+	public String ownerUsername;
+
+	@Id
+	public long seq;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	public DataChanged.Kind kind;
+
+	@Column(nullable = false)
+	public UUID friendId;
+
+	/** Set for {@link DataChanged.Kind#IDEA_CREATED}. */
+	public UUID ideaId;
+
+	public ChangeLogEntry() {
+	}
+
+	public ChangeLogEntry(String ownerUsername, long seq, DataChanged.Kind kind, UUID friendId, UUID ideaId) {
+		this.ownerUsername = ownerUsername;
+		this.seq = seq;
+		this.kind = kind;
+		this.friendId = friendId;
+		this.ideaId = ideaId;
+	}
+
+	public static class Key implements Serializable {
+		public String ownerUsername;
+		public long seq;
+
+		public Key() {
+		}
+
+		public Key(String ownerUsername, long seq) {
+			this.ownerUsername = ownerUsername;
+			this.seq = seq;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key other && seq == other.seq && Objects.equals(ownerUsername, other.ownerUsername);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(ownerUsername, seq);
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.friendgift.data;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+
+@ApplicationScoped
+public class ChangeLogRepository implements PanacheRepositoryBase<ChangeLogEntry, ChangeLogEntry.Key> {
+	/**
+	 * The owner's entries with {@code after < seq <= upTo}, oldest first, at most {@code limit} of them.
+	 */
+	public List<ChangeLogEntry> listBetween(String username, long after, long upTo, int limit) {
+		return find("ownerUsername = ?1 and seq > ?2 and seq <= ?3", Sort.by("seq"), username, after, upTo)
+				.page(0, limit)
+				.list();
+	}
+
+	public long deleteUpTo(String username, long upTo) {
+		return delete("ownerUsername = ?1 and seq <= ?2", username, upTo);
+	}
+}
@@ -0,0 +1,76 @@
+package com.friendgift.data;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change versions backing the list ETags: one per user (friends list), one per
+ * owner/friend pair (ideas list) and one per user for the overview, which any change affects.
+ * Every value is drawn from a single counter, so a version never means the same thing for two users
+ * or two friends, and the boot epoch keeps tags issued before a restart from matching again.
+ * <p>
+ * At most {@code friendgift.etags.max-entries} versions are kept. An evicted key that is read again
+ * gets a fresh value from the counter, higher than any it had: clients refetch once, never miss a change.
+ */
+@ApplicationScoped
+public class ChangeVersions {
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong sequence = new AtomicLong();
+	@ConfigProperty(name = "friendgift.etags.max-entries", defaultValue = "100000")
+	long maxEntries;
+
+	private Cache<String, AtomicLong> versions;
+
+	@PostConstruct
+	void init() {
+		versions = Caffeine.newBuilder().maximumSize(maxEntries).build();
+	}
+
+	public String friendsVersion(String username) {
+		return current("u/" + username);
+	}
+
+	/**
+	 * Keyed on the canonical form of {@code friendId}, the one change events carry; empty when it is not
+	 * an id at all.
+	 */
+	public Optional<String> ideasVersion(String username, String friendId) {
+		return Ids.parse(friendId).map(id -> current("f/" + username + "/" + id));
+	}
+
+	public String overviewVersion(String username) {
+		return current("o/" + username);
+	}
+
+	void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) DataChanged change) {
+		bump("o/" + change.owner);
+		switch (change.kind) {
+			case FRIEND_CREATED, FRIEND_UPDATED -> bump("u/" + change.owner);
+			case FRIEND_DELETED -> {
+				bump("u/" + change.owner);
+				bump("f/" + change.owner + "/" + change.friendId);
+			}
+			case IDEA_CREATED -> bump("f/" + change.owner + "/" + change.friendId);
+		}
+	}
+
+	private String current(String key) {
+		return epoch + "." + versions.get(key, k -> new AtomicLong(sequence.incrementAndGet())).get();
+	}
+
+	private void bump(String key) {
+		long next = sequence.incrementAndGet();
+		AtomicLong version = versions.asMap().putIfAbsent(key, new AtomicLong(next));
+		if (version != null) {
+			version.accumulateAndGet(next, Math::max);
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.friendgift.data;
+
+import java.util.List;
+
+public class CursorPage<T> {
+	public List<T> items;
+	public String next;
+
+	public CursorPage() {
+	}
+
+	public CursorPage(List<T> items, String next) {
+		this.items = items;
+		this.next = next;
+	}
+}
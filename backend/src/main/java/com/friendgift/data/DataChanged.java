@@ -0,0 +1,55 @@
+package com.friendgift.data;
+
+import java.time.Instant;
+
+/**
+ * Fired by {@link UserStore} inside the writing transaction; observers that care about committed
+ * state use {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)}.
+ */
+public class DataChanged {
+	public enum Kind {
+		FRIEND_CREATED,
+		FRIEND_UPDATED,
+		FRIEND_DELETED,
+		IDEA_CREATED
+	}
+
+	public final Kind kind;
+	public final String owner;
+	public final String friendId;
+	/** Set for {@link Kind#IDEA_CREATED}. */
+	public final String ideaId;
+	/** New friend name for FRIEND_CREATED/FRIEND_UPDATED, idea text for IDEA_CREATED, otherwise null. */
+	public final String text;
+	/** Creation time of the friend or idea, when one was created. */
+	public final Instant createdAt;
+
+	public DataChanged(Kind kind, String owner, String friendId) {
+		this(kind, owner, friendId, null, null, null);
+	}
+
+	public DataChanged(Kind kind, String owner, String friendId, String ideaId, String text, Instant createdAt) {
+		this.kind = kind;
+		this.owner = owner;
+		this.friendId = friendId;
+		this.ideaId = ideaId;
+		this.text = text;
+		this.createdAt = createdAt;
+	}
+
+	public static DataChanged friendCreated(String owner, String friendId, String name, Instant createdAt) {
+		return new DataChanged(Kind.FRIEND_CREATED, owner, friendId, null, name, createdAt);
+	}
+
+	public static DataChanged friendRenamed(String owner, String friendId, String name) {
+		return new DataChanged(Kind.FRIEND_UPDATED, owner, friendId, null, name, null);
+	}
+
+	public static DataChanged friendDeleted(String owner, String friendId) {
+		return new DataChanged(Kind.FRIEND_DELETED, owner, friendId);
+	}
+
+	public static DataChanged ideaCreated(String owner, String friendId, String ideaId, String text, Instant createdAt) {
+		return new DataChanged(Kind.IDEA_CREATED, owner, friendId, ideaId, text, createdAt);
+	}
+}
@@ -1,16 +1,49 @@
 package com.friendgift.data;
 
+import com.friendgift.auth.PasswordHasher;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
+/**
+ * Demo accounts, plus an optional synthetic data set sized by {@code friendgift.seed.*}: users
+ * {@code user00001..userN} (password "password"), each with a heavy-tailed number of friends and ideas
+ * so that a few accounts are much larger than the typical one, as in real data. Generation is
+ * deterministic for a given random seed and is skipped once the first synthetic user exists.
+ */
 @ApplicationScoped
 public class DataSeeder {
+	private static final Logger LOG = Logger.getLogger(DataSeeder.class);
+
+	private static final String[] FIRST_NAMES = {
+			"Hassan", "Sarah", "Camille", "Lucas", "Yasmine", "Hugo", "Léa", "Karim", "Chloé", "Mehdi",
+			"Inès", "Louis", "Emma", "Nathan", "Amira", "Jules", "Manon", "Rayan", "Zoé", "Théo"
+	};
+	private static final String[] QUALIFIERS = {
+			"", "", "", " pour l'anniversaire", " pour Noël", " (petit budget)", " en édition limitée", " bleu", " vintage"
+	};
+	/** Users inserted per transaction; the rows of one transaction are flushed as JDBC batches. */
+	private static final int USERS_PER_TRANSACTION = 20;
+	/** A single account never gets more than this many times the mean. */
+	private static final int MAX_FACTOR = 20;
+
 	@Inject
 	AppUserRepository userRepository;
 
@@ -20,8 +53,29 @@ public class DataSeeder {
 	@Inject
 	GiftIdeaRepository giftIdeaRepository;
 
+	@Inject
+	PasswordHasher passwordHasher;
+
+	@ConfigProperty(name = "friendgift.seed.users", defaultValue = "0")
+	int syntheticUsers;
+
+	@ConfigProperty(name = "friendgift.seed.friends-per-user", defaultValue = "20")
+	double friendsPerUser;
+
+	@ConfigProperty(name = "friendgift.seed.ideas-per-friend", defaultValue = "5")
+	double ideasPerFriend;
+
+	@ConfigProperty(name = "friendgift.seed.skew", defaultValue = "1.5")
+	double skew;
+
+	@ConfigProperty(name = "friendgift.seed.random-seed", defaultValue = "42")
+	long randomSeed;
+
 	void onStart(@Observes StartupEvent event) {
 		seedIfMissing();
+		if (syntheticUsers > 0) {
+			seedSyntheticIfMissing();
+		}
 	}
 
 	@Transactional
@@ -30,22 +84,112 @@ public class DataSeeder {
 			return;
 		}
 
-		AppUser omar = new AppUser("omar", "password");
-		AppUser alice = new AppUser("alice", "password");
+		String demoPassword = passwordHasher.hash("password");
+		AppUser omar = new AppUser("omar", demoPassword);
+		AppUser alice = new AppUser("alice", demoPassword);
 		userRepository.persist(omar);
 		userRepository.persist(alice);
 
 		Instant now = Instant.now();
 
-		Friend hassan = new Friend(UUID.randomUUID().toString(), omar, "Hassan", now.minusSeconds(2 * 86400L));
-		Friend sarah = new Friend(UUID.randomUUID().toString(), omar, "Sarah", now.minusSeconds(86400L));
+		Friend hassan = new Friend(Ids.next(), omar, "Hassan", now.minusSeconds(2 * 86400L));
+		Friend sarah = new Friend(Ids.next(), omar, "Sarah", now.minusSeconds(86400L));
 		friendRepository.persist(hassan);
 		friendRepository.persist(sarah);
 
-		giftIdeaRepository.persist(new GiftIdea(UUID.randomUUID().toString(), hassan, "Montre connectée", now.minusSeconds(86400L)));
-		giftIdeaRepository.persist(new GiftIdea(UUID.randomUUID().toString(), sarah, "Livre de cuisine", now.minusSeconds(3600L)));
+		giftIdeaRepository.persist(new GiftIdea(Ids.next(), hassan, "Montre connectée", now.minusSeconds(86400L)));
+		giftIdeaRepository.persist(new GiftIdea(Ids.next(), sarah, "Livre de cuisine", now.minusSeconds(3600L)));
 
-		Friend bob = new Friend(UUID.randomUUID().toString(), alice, "Bob", now.minusSeconds(7200L));
+		Friend bob = new Friend(Ids.next(), alice, "Bob", now.minusSeconds(7200L));
 		friendRepository.persist(bob);
 	}
+
+	void seedSyntheticIfMissing() {
+		if (QuarkusTransaction.requiringNew().call(() -> userRepository.findById(syntheticUsername(1)) != null)) {
+			return;
+		}
+
+		long started = System.nanoTime();
+		List<String> phrases = readPhrases();
+		String password = passwordHasher.hash("password");
+		Random random = new Random(randomSeed);
+		Instant now = Instant.now();
+		long friends = 0;
+		long ideas = 0;
+		for (int first = 1; first <= syntheticUsers; first += USERS_PER_TRANSACTION) {
+			int last = Math.min(syntheticUsers, first + USERS_PER_TRANSACTION - 1);
+			long[] counts = new long[2];
+			int from = first;
+			QuarkusTransaction.requiringNew().run(() -> {
+				EntityManager em = userRepository.getEntityManager();
+				for (int u = from; u <= last; u++) {
+					AppUser user = new AppUser(syntheticUsername(u), password);
+					userRepository.persist(user);
+					int friendCount = sample(random, friendsPerUser);
+					for (int f = 0; f < friendCount; f++) {
+						String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + (f + 1);
+						Friend friend = new Friend(Ids.next(), user, name, pastInstant(random, now));
+						friendRepository.persist(friend);
+						counts[0]++;
+						int ideaCount = sample(random, ideasPerFriend);
+						for (int i = 0; i < ideaCount; i++) {
+							String text = phrases.get(random.nextInt(phrases.size())) + QUALIFIERS[random.nextInt(QUALIFIERS.length)];
+							giftIdeaRepository.persist(new GiftIdea(Ids.next(), friend, text, pastInstant(random, now)));
+							counts[1]++;
+						}
+					}
+				}
+				em.flush();
+				em.clear();
+			});
+			friends += counts[0];
+			ideas += counts[1];
+		}
+		LOG.infof("Seeded %d synthetic users, %d friends, %d ideas in %d ms", syntheticUsers, friends, ideas,
+				(System.nanoTime() - started) / 1_000_000);
+	}
+
+	static String syntheticUsername(int n) {
+		return String.format("user%05d", n);
+	}
+
+	/**
+	 * Pareto-distributed count with the given mean (shape {@code skew} &gt; 1; lower is more skewed),
+	 * rounded and capped at {@link #MAX_FACTOR} times the mean.
+	 */
+	private int sample(Random random, double mean) {
+		if (mean <= 0) {
+			return 0;
+		}
+		double scale = mean * (skew - 1) / skew;
+		double value = scale / Math.pow(1 - random.nextDouble(), 1 / skew);
+		return (int) Math.min(Math.round(value), Math.round(mean * MAX_FACTOR));
+	}
+
+	/**
+	 * Within the last year, most of it recent.
+	 */
+	private static Instant pastInstant(Random random, Instant now) {
+		double r = random.nextDouble();
+		return now.minusSeconds((long) (r * r * 365 * 86400L)).minusNanos(random.nextInt(1_000_000) * 1000L);
+	}
+
+	private static List<String> readPhrases() {
+		List<String> phrases = new ArrayList<>();
+		InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream("suggestions-seed.txt");
+		if (in == null) {
+			return List.of("Livre de cuisine");
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isBlank() && !line.startsWith("#")) {
+					phrases.add(line.trim());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return phrases;
+	}
 }
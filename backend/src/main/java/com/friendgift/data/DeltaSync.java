@@ -0,0 +1,122 @@
+package com.friendgift.data;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Incremental sync from the {@link ChangeLog}: a token is the owner's change sequence at the time of
+ * the previous sync, and the answer holds the current state of every friend and idea touched since,
+ * plus tombstones for deleted friends. A client without a token, with a token from before a database
+ * reset, further behind than {@link #MAX_DELTA_ENTRIES} changes, or older than the entries the change
+ * log still holds gets the whole account instead.
+ */
+@ApplicationScoped
+public class DeltaSync {
+	static final int MAX_DELTA_ENTRIES = 1000;
+	private static final String TOKEN_PREFIX = "s1:";
+
+	@Inject
+	AppUserRepository userRepository;
+
+	@Inject
+	ChangeLogRepository changeLogRepository;
+
+	@Inject
+	FriendRepository friendRepository;
+
+	@Inject
+	GiftIdeaRepository giftIdeaRepository;
+
+	/**
+	 * Empty when {@code since} is not a token this endpoint issued.
+	 */
+	@Transactional
+	public Optional<SyncDto> sync(String username, String since) {
+		Long after = null;
+		if (since != null && !since.isEmpty()) {
+			after = decodeToken(since).orElse(null);
+			if (after == null) {
+				return Optional.empty();
+			}
+		}
+
+		// The sequence is read before the data. Sequence numbers of one user are committed in order (see
+		// AppUserRepository#advanceChangeSeq), so every change up to it is visible below; a change
+		// committed meanwhile may show up twice, once here and once in the next sync, never zero times.
+		long[] range = userRepository.changeLogRange(username);
+		long current = range[1];
+		if (after == null || after > current || after < range[0]) {
+			return Optional.of(snapshot(username, current));
+		}
+		List<ChangeLogEntry> entries = changeLogRepository.listBetween(username, after, current, MAX_DELTA_ENTRIES + 1);
+		if (entries.size() > MAX_DELTA_ENTRIES) {
+			return Optional.of(snapshot(username, current));
+		}
+
+		Set<UUID> friendIds = new LinkedHashSet<>();
+		Set<UUID> deletedFriendIds = new LinkedHashSet<>();
+		Set<UUID> ideaIds = new LinkedHashSet<>();
+		for (ChangeLogEntry entry : entries) {
+			switch (entry.kind) {
+				case FRIEND_CREATED, FRIEND_UPDATED -> friendIds.add(entry.friendId);
+				case FRIEND_DELETED -> deletedFriendIds.add(entry.friendId);
+				case IDEA_CREATED -> ideaIds.add(entry.ideaId);
+			}
+		}
+		friendIds.removeAll(deletedFriendIds);
+
+		List<FriendDto> friends = friendIds.isEmpty()
+				? List.of()
+				: friendRepository.listNamesByOwnerAndIds(username, friendIds).stream().map(DeltaSync::toFriend).toList();
+		// Ideas of a friend deleted since are gone with it; the tombstone covers them.
+		List<SyncIdeaDto> ideas = ideaIds.isEmpty()
+				? List.of()
+				: giftIdeaRepository.listIndexRowsByOwnerAndIds(username, ideaIds).stream().map(DeltaSync::toIdea).toList();
+		List<String> deleted = deletedFriendIds.stream().map(UUID::toString).toList();
+		return Optional.of(new SyncDto(encodeToken(current), false, friends, ideas, deleted));
+	}
+
+	private SyncDto snapshot(String username, long current) {
+		List<FriendDto> friends = friendRepository.listNamesByOwner(username).stream().map(DeltaSync::toFriend).toList();
+		List<SyncIdeaDto> ideas = giftIdeaRepository.listIndexRowsByOwner(username).stream().map(DeltaSync::toIdea).toList();
+		return new SyncDto(encodeToken(current), true, friends, ideas, List.of());
+	}
+
+	private static FriendDto toFriend(Object[] row) {
+		return new FriendDto(row[0].toString(), (String) row[1]);
+	}
+
+	private static SyncIdeaDto toIdea(Object[] row) {
+		return new SyncIdeaDto(row[0].toString(), row[1].toString(), (String) row[2], row[3].toString());
+	}
+
+	static String encodeToken(long seq) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((TOKEN_PREFIX + seq).getBytes(StandardCharsets.UTF_8));
+	}
+
+	static Optional<Long> decodeToken(String token) {
+		if (token.length() > 64) {
+			return Optional.empty();
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			if (!raw.startsWith(TOKEN_PREFIX)) {
+				return Optional.empty();
+			}
+			long seq = Long.parseLong(raw.substring(TOKEN_PREFIX.length()));
+			return seq < 0 ? Optional.empty() : Optional.of(seq);
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+}
@@ -9,13 +9,13 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
 @Table(name = "friend")
 public class Friend {
 	@Id
-	@Column(length = 36)
-	public String id;
+	public UUID id;
 
 	@ManyToOne(optional = false, fetch = FetchType.LAZY)
 	@JoinColumn(name = "owner_username", nullable = false)
@@ -27,10 +27,13 @@ public class Friend {
 	@Column(nullable = false)
 	public Instant createdAt;
 
+	/** Set when the owner deletes the friend; the row stays, hidden, until {@link FriendPurge} removes it. */
+	public Instant deletedAt;
+
 	public Friend() {
 	}
 
-	public Friend(String id, AppUser owner, String name, Instant createdAt) {
+	public Friend(UUID id, AppUser owner, String name, Instant createdAt) {
 		this.id = id;
 		this.owner = owner;
 		this.name = name;
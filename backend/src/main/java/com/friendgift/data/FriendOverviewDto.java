@@ -0,0 +1,19 @@
+package com.friendgift.data;
+
+public class FriendOverviewDto {
+	public String id;
+	public String name;
+	public long ideaCount;
+	/** Text of the newest idea, null when there is none. */
+	public String latestIdea;
+
+	public FriendOverviewDto() {
+	}
+
+	public FriendOverviewDto(String id, String name, long ideaCount, String latestIdea) {
+		this.id = id;
+		this.name = name;
+		this.ideaCount = ideaCount;
+		this.latestIdea = latestIdea;
+	}
+}
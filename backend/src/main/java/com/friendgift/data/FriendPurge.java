@@ -0,0 +1,148 @@
+package com.friendgift.data;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background removal of soft-deleted friends. One worker thread takes the friend deleted longest ago,
+ * deletes up to {@code friendgift.purge.chunk-size} of its ideas per transaction with
+ * {@code friendgift.purge.pause} between chunks, then the friend row itself. Each chunk is a short
+ * transaction, so requests never wait behind a large purge, and nothing is kept in memory: after a
+ * restart the worker simply starts again from the rows still flagged. Each chunk fires
+ * {@link IdeasPurged} with the texts it deleted.
+ * <p>
+ * A committed delete wakes the worker; it also looks every {@code friendgift.purge.idle-poll} in case
+ * a wake-up was missed.
+ */
+@ApplicationScoped
+public class FriendPurge {
+	private static final Logger LOG = Logger.getLogger(FriendPurge.class);
+
+	@ConfigProperty(name = "friendgift.purge.enabled", defaultValue = "true")
+	boolean enabled;
+
+	@ConfigProperty(name = "friendgift.purge.chunk-size", defaultValue = "500")
+	int chunkSize;
+
+	@ConfigProperty(name = "friendgift.purge.pause", defaultValue = "20ms")
+	Duration pause;
+
+	@ConfigProperty(name = "friendgift.purge.idle-poll", defaultValue = "60s")
+	Duration idlePoll;
+
+	@Inject
+	FriendRepository friendRepository;
+
+	@Inject
+	GiftIdeaRepository giftIdeaRepository;
+
+	@Inject
+	Event<IdeasPurged> ideasPurged;
+
+	private final Semaphore wakeUps = new Semaphore(0);
+	private final LongAdder purgedFriends = new LongAdder();
+	private final LongAdder purgedIdeas = new LongAdder();
+	private Thread worker;
+	private volatile boolean running;
+
+	void onStart(@Observes StartupEvent event) {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		worker = new Thread(this::run, "friend-purge");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		if (worker != null) {
+			// Stops between chunks; whatever is left is picked up again on the next start.
+			running = false;
+			worker.interrupt();
+			worker.join(TimeUnit.SECONDS.toMillis(10));
+		}
+	}
+
+	void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) DataChanged change) {
+		if (change.kind == DataChanged.Kind.FRIEND_DELETED) {
+			wakeUps.release();
+		}
+	}
+
+	public long purgedFriends() {
+		return purgedFriends.sum();
+	}
+
+	public long purgedIdeas() {
+		return purgedIdeas.sum();
+	}
+
+	private void run() {
+		while (running) {
+			try {
+				if (purgeChunk()) {
+					Thread.sleep(pause.toMillis());
+				} else {
+					wakeUps.tryAcquire(idlePoll.toMillis(), TimeUnit.MILLISECONDS);
+					wakeUps.drainPermits();
+				}
+			} catch (InterruptedException e) {
+				running = false;
+			} catch (RuntimeException e) {
+				// Typically an idea inserted by a request that found the friend just before its deletion;
+				// the next round deletes it too.
+				LOG.warn("Friend purge failed, retrying", e);
+				try {
+					Thread.sleep(idlePoll.toMillis() / 10);
+				} catch (InterruptedException stop) {
+					running = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes one chunk of ideas of the oldest soft-deleted friend, and the friend once none are left.
+	 * False when there was nothing to purge.
+	 */
+	private boolean purgeChunk() {
+		long[] purged = QuarkusTransaction.requiringNew().call(() -> {
+			Optional<Object[]> next = friendRepository.findNextDeleted();
+			if (next.isEmpty()) {
+				return null;
+			}
+			UUID friendId = (UUID) next.get()[0];
+			List<String> texts = giftIdeaRepository.deleteChunkOfFriend(friendId, chunkSize);
+			if (!texts.isEmpty()) {
+				ideasPurged.fire(new IdeasPurged((String) next.get()[1], texts));
+			}
+			int friends = texts.size() < chunkSize ? friendRepository.purgeDeleted(friendId) : 0;
+			return new long[] {texts.size(), friends};
+		});
+		if (purged == null) {
+			return false;
+		}
+		// Counted once committed.
+		purgedIdeas.add(purged[0]);
+		purgedFriends.add(purged[1]);
+		return true;
+	}
+}
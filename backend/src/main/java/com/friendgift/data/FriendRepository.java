@@ -1,19 +1,170 @@
 package com.friendgift.data;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
-import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Every query here leaves out soft-deleted friends ({@link Friend#deletedAt} set), except the ones
+ * {@link FriendPurge} uses to find and remove them.
+ */
 @ApplicationScoped
-public class FriendRepository implements PanacheRepositoryBase<Friend, String> {
-	public List<Friend> listByOwnerUsername(String username) {
-		return find("owner.username", Sort.by("createdAt"), username).list();
+public class FriendRepository implements PanacheRepositoryBase<Friend, UUID> {
+	/**
+	 * Friend columns plus idea count and newest idea text, as correlated subqueries that each read a
+	 * range of {@code ix_gift_idea_friend_created}: one statement, no {@link GiftIdea} is loaded.
+	 * Rows are {@code [id, name, createdAt, ideaCount, latestIdea]}.
+	 */
+	private static final String OVERVIEW = "select f.id, f.name, f.createdAt,"
+			+ " (select count(*) from GiftIdea i where i.friend = f),"
+			+ " (select i.text from GiftIdea i where i.friend = f order by i.createdAt desc, i.id desc limit 1)"
+			+ " from Friend f where f.deletedAt is null";
+
+	/**
+	 * Oldest first, seeking past {@code after} instead of skipping rows so every page costs the same.
+	 * The redundant {@code createdAt >= ?2} bound gives the database an index range to start from.
+	 * Rows are {@code [id, name, createdAt]}: no {@link Friend} is loaded into the session.
+	 */
+	public List<Object[]> listByOwnerUsername(String username, PageCursor after, int limit) {
+		return listByOwnerUsername(getEntityManager(), username, after, limit);
+	}
+
+	/** {@link #listByOwnerUsername(String, PageCursor, int)} on any session, for the benchmarks. */
+	static List<Object[]> listByOwnerUsername(EntityManager em, String username, PageCursor after, int limit) {
+		TypedQuery<Object[]> query;
+		if (after == null) {
+			query = em
+					.createQuery("select f.id, f.name, f.createdAt from Friend f"
+							+ " where f.owner.username = ?1 and f.deletedAt is null"
+							+ " order by f.createdAt, f.id", Object[].class)
+					.setParameter(1, username);
+		} else {
+			query = em
+					.createQuery("select f.id, f.name, f.createdAt from Friend f"
+							+ " where f.owner.username = ?1 and f.deletedAt is null"
+							+ " and f.createdAt >= ?2 and (f.createdAt > ?2 or f.id > ?3)"
+							+ " order by f.createdAt, f.id", Object[].class)
+					.setParameter(1, username)
+					.setParameter(2, after.createdAt)
+					.setParameter(3, after.id);
+		}
+		return query.setMaxResults(limit).getResultList();
+	}
+
+	/**
+	 * Same page as {@link #listByOwnerUsername}, as overview rows.
+	 */
+	public List<Object[]> listOverviewByOwnerUsername(String username, PageCursor after, int limit) {
+		TypedQuery<Object[]> query;
+		if (after == null) {
+			query = getEntityManager()
+					.createQuery(OVERVIEW + " and f.owner.username = ?1 order by f.createdAt, f.id", Object[].class)
+					.setParameter(1, username);
+		} else {
+			query = getEntityManager()
+					.createQuery(OVERVIEW + " and f.owner.username = ?1 and f.createdAt >= ?2 and (f.createdAt > ?2 or f.id > ?3)"
+							+ " order by f.createdAt, f.id", Object[].class)
+					.setParameter(1, username)
+					.setParameter(2, after.createdAt)
+					.setParameter(3, after.id);
+		}
+		return query.setMaxResults(limit).getResultList();
+	}
+
+	public Optional<Object[]> findOverviewByOwnerAndId(String username, UUID friendId) {
+		return getEntityManager()
+				.createQuery(OVERVIEW + " and f.owner.username = ?1 and f.id = ?2", Object[].class)
+				.setParameter(1, username)
+				.setParameter(2, friendId)
+				.getResultStream()
+				.findFirst();
+	}
+
+	/**
+	 * {@code [id, name]} of every friend of the owner.
+	 */
+	public List<Object[]> listNamesByOwner(String username) {
+		return getEntityManager()
+				.createQuery("select f.id, f.name from Friend f where f.owner.username = ?1 and f.deletedAt is null", Object[].class)
+				.setParameter(1, username)
+				.getResultList();
+	}
+
+	/**
+	 * {@code [id, name]} of the owner's friends among {@code friendIds}; ids of other owners or of deleted
+	 * friends are left out.
+	 */
+	public List<Object[]> listNamesByOwnerAndIds(String username, Collection<UUID> friendIds) {
+		return getEntityManager()
+				.createQuery("select f.id, f.name from Friend f"
+						+ " where f.owner.username = ?1 and f.deletedAt is null and f.id in ?2", Object[].class)
+				.setParameter(1, username)
+				.setParameter(2, friendIds)
+				.getResultList();
+	}
+
+	/**
+	 * Every friend of the owner with each of its ideas, as {@code [friendId, name, createdAt, ideaId, text,
+	 * ideaCreatedAt]} (idea columns null for a friend without ideas), grouped by friend in listing order.
+	 * Read from a forward-only cursor in fetch-size chunks: close the stream to release it.
+	 */
+	public Stream<Object[]> streamExportRows(String username) {
+		return getEntityManager()
+				.createQuery("select f.id, f.name, f.createdAt, i.id, i.text, i.createdAt"
+						+ " from Friend f left join GiftIdea i on i.friend = f"
+						+ " where f.owner.username = ?1 and f.deletedAt is null"
+						+ " order by f.createdAt, f.id, i.createdAt, i.id", Object[].class)
+				.setParameter(1, username)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultStream();
+	}
+
+	public Optional<Friend> findByOwnerAndId(String username, UUID friendId) {
+		return find("owner.username = ?1 and id = ?2 and deletedAt is null", username, friendId).firstResultOptional();
+	}
+
+	/**
+	 * Ownership-checked rename in one statement; 0 means no such friend for this owner.
+	 */
+	public int renameForOwner(String username, UUID friendId, String name) {
+		return update("name = ?1 where id = ?2 and owner.username = ?3 and deletedAt is null", name, friendId, username);
+	}
+
+	/**
+	 * Ownership-checked soft delete in one statement, whatever the number of ideas: the friend disappears
+	 * from every query, and {@link FriendPurge} removes the rows later. 0 means no such friend for this owner.
+	 */
+	public int deleteForOwner(String username, UUID friendId) {
+		return update("deletedAt = ?1 where id = ?2 and owner.username = ?3 and deletedAt is null",
+				Instant.now(), friendId, username);
+	}
+
+	/**
+	 * {@code [id, ownerUsername]} of the soft-deleted friend waiting longest for its purge.
+	 */
+	public Optional<Object[]> findNextDeleted() {
+		return getEntityManager()
+				.createQuery("select f.id, f.owner.username from Friend f where f.deletedAt is not null order by f.deletedAt",
+						Object[].class)
+				.setMaxResults(1)
+				.getResultStream()
+				.findFirst();
 	}
 
-	public Optional<Friend> findByOwnerAndId(String username, String friendId) {
-		return find("owner.username = ?1 and id = ?2", username, friendId).firstResultOptional();
+	/**
+	 * Removes a soft-deleted friend row, once {@link GiftIdeaRepository#deleteChunkOfFriend} has left it no ideas.
+	 */
+	public int purgeDeleted(UUID friendId) {
+		return (int) delete("id = ?1 and deletedAt is not null", friendId);
 	}
 }
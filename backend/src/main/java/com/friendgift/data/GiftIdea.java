@@ -1,5 +1,6 @@
 package com.friendgift.data;
 
+import com.friendgift.search.IdeaSignature;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -9,13 +10,13 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
 @Table(name = "gift_idea")
 public class GiftIdea {
 	@Id
-	@Column(length = 36)
-	public String id;
+	public UUID id;
 
 	@ManyToOne(optional = false, fetch = FetchType.LAZY)
 	@JoinColumn(name = "friend_id", nullable = false)
@@ -27,13 +28,18 @@ public class GiftIdea {
 	@Column(nullable = false)
 	public Instant createdAt;
 
+	/** {@link IdeaSignature} of {@link #text}, for near-duplicate detection. */
+	@Column(length = IdeaSignature.BYTES)
+	public byte[] signature;
+
 	public GiftIdea() {
 	}
 
-	public GiftIdea(String id, Friend friend, String text, Instant createdAt) {
+	public GiftIdea(UUID id, Friend friend, String text, Instant createdAt) {
 		this.id = id;
 		this.friend = friend;
 		this.text = text;
 		this.createdAt = createdAt;
+		this.signature = IdeaSignature.of(text);
 	}
 }
@@ -1,9 +1,14 @@
 package com.friendgift.data;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class GiftIdeaDto {
 	public String id;
 	public String text;
 	public String createdAt;
+	/** On a newly created idea: id of a near-identical idea the friend already had. */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public String duplicateOf;
 
 	public GiftIdeaDto() {
 	}
@@ -1,14 +1,129 @@
 package com.friendgift.data;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
-import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @ApplicationScoped
-public class GiftIdeaRepository implements PanacheRepositoryBase<GiftIdea, String> {
-	public List<GiftIdea> listByFriendIdNewestFirst(String friendId) {
-		return find("friend.id", Sort.by("createdAt").descending(), friendId).list();
+public class GiftIdeaRepository implements PanacheRepositoryBase<GiftIdea, UUID> {
+	/**
+	 * Newest first, seeking before {@code after}; see {@link FriendRepository#listByOwnerUsername}.
+	 * The friend's ownership is checked by the same statement: someone else's or a deleted friend
+	 * simply has no rows. Rows are {@code [id, text, createdAt]}, no entity is loaded.
+	 */
+	public List<Object[]> listByOwnerAndFriendNewestFirst(String username, UUID friendId, PageCursor after, int limit) {
+		return listByOwnerAndFriendNewestFirst(getEntityManager(), username, friendId, after, limit);
+	}
+
+	/** {@link #listByOwnerAndFriendNewestFirst(String, UUID, PageCursor, int)} on any session, for the benchmarks. */
+	static List<Object[]> listByOwnerAndFriendNewestFirst(EntityManager em, String username, UUID friendId,
+			PageCursor after, int limit) {
+		TypedQuery<Object[]> query;
+		if (after == null) {
+			query = em
+					.createQuery("select i.id, i.text, i.createdAt from GiftIdea i join i.friend f"
+							+ " where f.id = ?1 and f.owner.username = ?2 and f.deletedAt is null"
+							+ " order by i.createdAt desc, i.id desc", Object[].class)
+					.setParameter(1, friendId)
+					.setParameter(2, username);
+		} else {
+			query = em
+					.createQuery("select i.id, i.text, i.createdAt from GiftIdea i join i.friend f"
+							+ " where f.id = ?1 and f.owner.username = ?2 and f.deletedAt is null"
+							+ " and i.createdAt <= ?3 and (i.createdAt < ?3 or i.id < ?4)"
+							+ " order by i.createdAt desc, i.id desc", Object[].class)
+					.setParameter(1, friendId)
+					.setParameter(2, username)
+					.setParameter(3, after.createdAt)
+					.setParameter(4, after.id);
+		}
+		return query.setMaxResults(limit).getResultList();
+	}
+
+	/**
+	 * Inserts the idea under {@code friendId} only if that friend belongs to {@code username}:
+	 * the ownership check and the write are one {@code INSERT ... SELECT}, 0 rows means not found.
+	 */
+	public int insertForOwner(String username, UUID friendId, UUID id, String text, Instant createdAt, byte[] signature) {
+		return getEntityManager()
+				.createNativeQuery("insert into gift_idea (id, friend_id, text, created_at, signature)"
+						+ " select cast(?1 as uuid), f.id, cast(?2 as varchar(400)),"
+						+ " cast(?3 as timestamp(6) with time zone), cast(?6 as varbinary(64))"
+						+ " from friend f where f.id = ?4 and f.owner_username = ?5 and f.deleted_at is null")
+				.setParameter(1, id)
+				.setParameter(2, text)
+				.setParameter(3, createdAt)
+				.setParameter(4, friendId)
+				.setParameter(5, username)
+				.setParameter(6, signature)
+				.executeUpdate();
+	}
+
+	/**
+	 * Deletes up to {@code limit} ideas of the friend, read off {@code ix_gift_idea_friend_created}, and
+	 * returns the texts of those that went, in one statement; fewer than {@code limit} means none are left.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<String> deleteChunkOfFriend(UUID friendId, int limit) {
+		return getEntityManager()
+				.createNativeQuery("select text from old table (delete from gift_idea where id in"
+						+ " (select id from gift_idea where friend_id = ?1 limit ?2))", String.class)
+				.setParameter(1, friendId)
+				.setParameter(2, limit)
+				.getResultList();
+	}
+
+	/**
+	 * {@code [id, text, createdAt, signature]} of every idea of the owner's friend, for the near-duplicate
+	 * index; one row of nulls for a friend without ideas, no row at all when the owner has no such friend.
+	 */
+	public List<Object[]> listSignatureRows(String username, UUID friendId) {
+		return getEntityManager()
+				.createQuery("select i.id, i.text, i.createdAt, i.signature"
+						+ " from Friend f left join GiftIdea i on i.friend = f"
+						+ " where f.id = ?1 and f.owner.username = ?2 and f.deletedAt is null", Object[].class)
+				.setParameter(1, friendId)
+				.setParameter(2, username)
+				.getResultList();
+	}
+
+	/**
+	 * Every idea of the owner as {@code [id, friendId, text, createdAt]}, for building the search index.
+	 */
+	public List<Object[]> listIndexRowsByOwner(String username) {
+		return getEntityManager()
+				.createQuery("select i.id, i.friend.id, i.text, i.createdAt from GiftIdea i"
+						+ " where i.friend.owner.username = ?1 and i.friend.deletedAt is null", Object[].class)
+				.setParameter(1, username)
+				.getResultList();
+	}
+
+	/**
+	 * Same rows as {@link #listIndexRowsByOwner}, for the ideas among {@code ideaIds} only.
+	 */
+	public List<Object[]> listIndexRowsByOwnerAndIds(String username, Collection<UUID> ideaIds) {
+		return getEntityManager()
+				.createQuery("select i.id, i.friend.id, i.text, i.createdAt from GiftIdea i"
+						+ " where i.friend.owner.username = ?1 and i.friend.deletedAt is null and i.id in ?2", Object[].class)
+				.setParameter(1, username)
+				.setParameter(2, ideaIds)
+				.getResultList();
+	}
+
+	/**
+	 * {@code [text, ownerUsername, createdAt]} of every idea, streamed, for the suggestion trie.
+	 */
+	public Stream<Object[]> streamSuggestionRows() {
+		return getEntityManager()
+				.createQuery("select i.text, i.friend.owner.username, i.createdAt from GiftIdea i"
+						+ " where i.friend.deletedAt is null", Object[].class)
+				.getResultStream();
 	}
 }
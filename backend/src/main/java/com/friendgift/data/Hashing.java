@@ -0,0 +1,26 @@
+package com.friendgift.data;
+
+/**
+ * Fast non-cryptographic 64-bit hashing of text, shared by the in-memory indexes (Bloom filter of
+ * revoked tokens, MinHash signatures of ideas). Not for anything a caller could attack by choosing keys.
+ */
+public final class Hashing {
+	private Hashing() {
+	}
+
+	/** FNV-1a over the characters of {@code text[from, to)}. */
+	public static long fnv1a(CharSequence text, int from, int to) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = from; i < to; i++) {
+			h = (h ^ text.charAt(i)) * 0x100000001b3L;
+		}
+		return h;
+	}
+
+	/** SplitMix64 finalizer: spreads every input bit over the whole word. */
+	public static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,271 @@
+package com.friendgift.data;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group commit for single idea inserts, enabled by {@code friendgift.ideas.group-commit.enabled}.
+ * Callers enqueue their insert and wait; one writer thread drains the queue into a single transaction
+ * once {@code max-batch} inserts are waiting or {@code max-delay} has passed since the first one, so
+ * concurrent requests share one commit (and one log sync) instead of paying for one each.
+ * <p>
+ * Every insert keeps its own ownership check: the {@code INSERT ... SELECT} for someone else's friend
+ * affects no row and only that caller gets NOT_FOUND. If the shared transaction fails, its inserts are
+ * retried one transaction each, so a bad row cannot fail its neighbours. The queue is bounded: when it
+ * is full, callers block until the writer catches up, but never longer than {@code timeout} in all; past
+ * it they get {@link SaturatedException} (503). Each insert is claimed exactly once, either by the writer
+ * as its transaction starts or by its caller giving up, so a 503 always means the idea was not written
+ * and a retry cannot duplicate it; a caller whose insert the writer claimed waits for the commit instead.
+ * If the writer stops, every insert still waiting fails the same way instead of hanging.
+ */
+@ApplicationScoped
+public class IdeaGroupCommit {
+	public static class SaturatedException extends RuntimeException {
+		SaturatedException(String message) {
+			super(message);
+		}
+	}
+
+	@ConfigProperty(name = "friendgift.ideas.group-commit.enabled", defaultValue = "false")
+	boolean enabled;
+
+	@ConfigProperty(name = "friendgift.ideas.group-commit.max-batch", defaultValue = "64")
+	int maxBatch;
+
+	@ConfigProperty(name = "friendgift.ideas.group-commit.max-delay", defaultValue = "2ms")
+	Duration maxDelay;
+
+	@ConfigProperty(name = "friendgift.ideas.group-commit.queue-capacity", defaultValue = "4096")
+	int queueCapacity;
+
+	@ConfigProperty(name = "friendgift.ideas.group-commit.timeout", defaultValue = "5s")
+	Duration timeout;
+
+	@Inject
+	GiftIdeaRepository giftIdeaRepository;
+
+	@Inject
+	Event<DataChanged> changes;
+
+	@Inject
+	ChangeLog changeLog;
+
+	private static final class PendingIdea {
+		final String username;
+		final UUID friendId;
+		final UUID id = Ids.next();
+		final String text;
+		final byte[] signature;
+		final Instant createdAt = Instant.now();
+		final CompletableFuture<WriteResult<GiftIdeaDto>> result = new CompletableFuture<>();
+		/** Set by whichever comes first: the writer taking the insert, or its caller timing out. */
+		final AtomicBoolean claimed = new AtomicBoolean();
+
+		PendingIdea(String username, UUID friendId, String text, byte[] signature) {
+			this.username = username;
+			this.friendId = friendId;
+			this.text = text;
+			this.signature = signature;
+		}
+	}
+
+	private final LongAdder commits = new LongAdder();
+	private final LongAdder inserts = new LongAdder();
+	private BlockingQueue<PendingIdea> queue;
+	private Thread writer;
+	private volatile boolean running;
+
+	@PostConstruct
+	void init() {
+		if (!enabled) {
+			return;
+		}
+		queue = new ArrayBlockingQueue<>(queueCapacity);
+		running = true;
+		writer = new Thread(this::drain, "idea-group-commit");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		if (writer != null) {
+			// The writer empties the queue before it exits, so accepted inserts are not lost.
+			running = false;
+			writer.join(TimeUnit.SECONDS.toMillis(10));
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Inserts a validated idea under {@code friendId} if that friend belongs to {@code username}, and
+	 * returns once the batch holding it has committed. Must not be called inside a transaction.
+	 */
+	WriteResult<GiftIdeaDto> insert(String username, UUID friendId, String text, byte[] signature) {
+		if (!running) {
+			throw new SaturatedException("Idea group commit is stopped");
+		}
+		PendingIdea pending = new PendingIdea(username, friendId, text, signature);
+		long deadline = System.nanoTime() + timeout.toNanos();
+		try {
+			if (!queue.offer(pending, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new SaturatedException("Idea group commit queue is full");
+			}
+			if (!running) {
+				// The writer may have emptied the queue for the last time before this insert got in.
+				failQueued();
+			}
+			return pending.result.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			if (pending.claimed.compareAndSet(false, true)) {
+				throw new SaturatedException("Idea group commit timed out");
+			}
+			return awaitClaimed(pending);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			if (pending.claimed.compareAndSet(false, true)) {
+				throw new SaturatedException("Interrupted while waiting for an idea insert");
+			}
+			return awaitClaimed(pending);
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		}
+	}
+
+	/**
+	 * The writer holds the insert in a transaction: its outcome is only known once that ends.
+	 */
+	private static WriteResult<GiftIdeaDto> awaitClaimed(PendingIdea pending) {
+		try {
+			return pending.result.join();
+		} catch (CompletionException e) {
+			throw unwrap(e.getCause());
+		}
+	}
+
+	private static RuntimeException unwrap(Throwable cause) {
+		return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+	}
+
+	public int queueDepth() {
+		return queue == null ? 0 : queue.size();
+	}
+
+	public long commits() {
+		return commits.sum();
+	}
+
+	public long inserts() {
+		return inserts.sum();
+	}
+
+	private void drain() {
+		List<PendingIdea> batch = new ArrayList<>(maxBatch);
+		try {
+			while (running || !queue.isEmpty()) {
+				try {
+					PendingIdea first = queue.poll(100, TimeUnit.MILLISECONDS);
+					if (first == null) {
+						continue;
+					}
+					batch.add(first);
+					long deadline = System.nanoTime() + maxDelay.toNanos();
+					while (batch.size() < maxBatch) {
+						long wait = deadline - System.nanoTime();
+						PendingIdea next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+						if (next == null) {
+							break;
+						}
+						batch.add(next);
+					}
+				} catch (InterruptedException e) {
+					// Only shutdown interrupts; write what was collected and let the loop empty the queue.
+					running = false;
+				}
+				if (!batch.isEmpty()) {
+					write(batch);
+					batch.clear();
+				}
+			}
+		} finally {
+			// Normally nothing is left; after an Error, nobody else would ever complete these.
+			running = false;
+			batch.forEach(pending -> pending.result.completeExceptionally(new SaturatedException("Idea group commit writer stopped")));
+			failQueued();
+		}
+	}
+
+	private void failQueued() {
+		PendingIdea pending;
+		while ((pending = queue.poll()) != null) {
+			pending.result.completeExceptionally(new SaturatedException("Idea group commit writer stopped"));
+		}
+	}
+
+	private void write(List<PendingIdea> batch) {
+		// Callers that timed out claimed their insert first and got 503; it must not be written.
+		batch.removeIf(pending -> !pending.claimed.compareAndSet(false, true));
+		if (batch.isEmpty()) {
+			return;
+		}
+		List<WriteResult<GiftIdeaDto>> results;
+		try {
+			results = QuarkusTransaction.requiringNew().call(() -> batch.stream().map(this::insertOne).toList());
+			commits.increment();
+		} catch (RuntimeException e) {
+			if (batch.size() == 1) {
+				batch.get(0).result.completeExceptionally(e);
+				return;
+			}
+			for (PendingIdea pending : batch) {
+				try {
+					pending.result.complete(QuarkusTransaction.requiringNew().call(() -> insertOne(pending)));
+					commits.increment();
+				} catch (RuntimeException single) {
+					pending.result.completeExceptionally(single);
+				}
+			}
+			inserts.add(batch.size());
+			return;
+		}
+		inserts.add(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			batch.get(i).result.complete(results.get(i));
+		}
+	}
+
+	private WriteResult<GiftIdeaDto> insertOne(PendingIdea pending) {
+		if (giftIdeaRepository.insertForOwner(pending.username, pending.friendId, pending.id, pending.text, pending.createdAt,
+				pending.signature) == 0) {
+			return WriteResult.notFound();
+		}
+		DataChanged change = DataChanged.ideaCreated(pending.username, pending.friendId.toString(), pending.id.toString(),
+				pending.text, pending.createdAt);
+		changeLog.append(change);
+		changes.fire(change);
+		return WriteResult.ok(new GiftIdeaDto(pending.id.toString(), pending.text, pending.createdAt.toString()));
+	}
+}
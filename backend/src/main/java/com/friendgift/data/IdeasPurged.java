@@ -0,0 +1,17 @@
+package com.friendgift.data;
+
+import java.util.List;
+
+/**
+ * Fired by {@link FriendPurge} inside the transaction that deletes a chunk of a deleted friend's ideas,
+ * with their texts, for the in-memory structures that learned from them.
+ */
+public class IdeasPurged {
+	public final String owner;
+	public final List<String> texts;
+
+	public IdeasPurged(String owner, List<String> texts) {
+		this.owner = owner;
+		this.texts = texts;
+	}
+}
@@ -0,0 +1,55 @@
+package com.friendgift.data;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Primary keys of friends and ideas: UUID version 7 (RFC 9562), stored by the database as 16 bytes.
+ * The first 48 bits are the Unix time in milliseconds, so new rows land at the right edge of the key
+ * index instead of at random pages; the next 12 bits count ids within the same millisecond, so ids from
+ * this process are strictly increasing. The remaining 62 bits are random.
+ * <p>
+ * The ids are not secrets (every query checks ownership), so the random bits come from
+ * {@link ThreadLocalRandom} rather than a contended {@code SecureRandom}.
+ */
+final class Ids {
+	private static final int COUNTER_BITS = 12;
+	/** A new millisecond starts its counter below this, leaving room to count up within it. */
+	private static final int COUNTER_START_BOUND = 1 << (COUNTER_BITS - 1);
+
+	/** {@code millis << 12 | counter} of the last id handed out. */
+	private static final AtomicLong last = new AtomicLong();
+
+	private Ids() {
+	}
+
+	static UUID next() {
+		long now = System.currentTimeMillis();
+		// Past 4096 ids in one millisecond (or when the clock steps back) the counter carries into the
+		// timestamp: ids run slightly ahead of the clock rather than going backwards.
+		long stamp = last.updateAndGet(prev -> Math.max(prev + 1,
+				now << COUNTER_BITS | ThreadLocalRandom.current().nextInt(COUNTER_START_BOUND)));
+		long msb = (stamp >>> COUNTER_BITS) << 16 | 0x7000L | (stamp & 0xFFFL);
+		long lsb = ThreadLocalRandom.current().nextLong() >>> 2 | 0x8000000000000000L;
+		return new UUID(msb, lsb);
+	}
+
+	/**
+	 * Strict canonical form (8-4-4-4-12 hex digits); {@link UUID#fromString} alone also accepts
+	 * shortened groups such as {@code 1-1-1-1-1}. Any version is accepted, since rows created before
+	 * version 7 ids keep their random ones.
+	 */
+	static Optional<UUID> parse(String value) {
+		if (value == null || value.length() != 36 || value.charAt(8) != '-' || value.charAt(13) != '-'
+				|| value.charAt(18) != '-' || value.charAt(23) != '-') {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(UUID.fromString(value));
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+}
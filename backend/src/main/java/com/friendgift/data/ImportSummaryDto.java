@@ -0,0 +1,13 @@
+package com.friendgift.data;
+
+public class ImportSummaryDto {
+	public long friends;
+	public long ideas;
+	/** Lines that were well-formed but not importable (unknown type, invalid field, unknown friend). */
+	public long skipped;
+	/** Set when the stream is malformed: everything before this line was imported, nothing after it. */
+	public Long failedAtLine;
+
+	public ImportSummaryDto() {
+	}
+}
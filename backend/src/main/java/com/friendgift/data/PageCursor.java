@@ -0,0 +1,47 @@
+package com.friendgift.data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position for listings ordered by {@code (createdAt, id)}.
+ * Clients only ever see the base64url token returned by {@link #encode()}.
+ */
+public class PageCursor {
+	public final Instant createdAt;
+	public final UUID id;
+
+	public PageCursor(Instant createdAt, UUID id) {
+		this.createdAt = createdAt;
+		this.id = id;
+	}
+
+	public String encode() {
+		String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static Optional<PageCursor> decode(String token) {
+		if (token == null || token.isBlank() || token.length() > 128) {
+			return Optional.empty();
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int dot = raw.indexOf('.');
+			int colon = raw.indexOf(':');
+			if (dot <= 0 || colon <= dot + 1 || colon == raw.length() - 1) {
+				return Optional.empty();
+			}
+			long seconds = Long.parseLong(raw.substring(0, dot));
+			long nanos = Long.parseLong(raw.substring(dot + 1, colon));
+			Instant createdAt = Instant.ofEpochSecond(seconds, nanos);
+			return Ids.parse(raw.substring(colon + 1)).map(id -> new PageCursor(createdAt, id));
+		} catch (IllegalArgumentException | DateTimeException e) {
+			return Optional.empty();
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.friendgift.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_token")
+public class RevokedToken {
+	@Id
+	@Column(length = 36)
+	public String jti;
+
+	@Column(nullable = false, length = 32)
+	public String username;
+
+	/** Expiry of the token itself; the row is useless after it. */
+	@Column(nullable = false)
+	public Instant expiresAt;
+
+	public RevokedToken() {
+	}
+
+	public RevokedToken(String jti, String username, Instant expiresAt) {
+		this.jti = jti;
+		this.username = username;
+		this.expiresAt = expiresAt;
+	}
+}
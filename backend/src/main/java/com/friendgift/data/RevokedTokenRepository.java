@@ -0,0 +1,36 @@
+package com.friendgift.data;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+@ApplicationScoped
+public class RevokedTokenRepository implements PanacheRepositoryBase<RevokedToken, String> {
+	/**
+	 * jti of every revoked token not yet expired at {@code now}; close the stream to release the cursor.
+	 */
+	public Stream<String> streamUnexpired(Instant now) {
+		return getEntityManager()
+				.createQuery("select t.jti from RevokedToken t where t.expiresAt > ?1", String.class)
+				.setParameter(1, now)
+				.getResultStream();
+	}
+
+	/**
+	 * Records the revocation in one statement, whether or not the token was already revoked.
+	 */
+	public void upsert(String jti, String username, Instant expiresAt) {
+		getEntityManager()
+				.createNativeQuery("merge into revoked_token (jti, username, expires_at) key (jti) values (?1, ?2, ?3)")
+				.setParameter(1, jti)
+				.setParameter(2, username)
+				.setParameter(3, expiresAt)
+				.executeUpdate();
+	}
+
+	public long deleteExpired(Instant now) {
+		return delete("expiresAt <= ?1", now);
+	}
+}
@@ -0,0 +1,28 @@
+package com.friendgift.data;
+
+import java.util.List;
+
+/**
+ * Answer of {@code GET /api/sync}: what to apply to the client's copy, and the token for next time.
+ * When {@link #full} is true the lists are the whole account and replace the copy; otherwise
+ * {@link #friends} and {@link #ideas} are upserts by id, and {@link #deletedFriends} are removed
+ * together with their ideas.
+ */
+public class SyncDto {
+	public String token;
+	public boolean full;
+	public List<FriendDto> friends;
+	public List<SyncIdeaDto> ideas;
+	public List<String> deletedFriends;
+
+	public SyncDto() {
+	}
+
+	public SyncDto(String token, boolean full, List<FriendDto> friends, List<SyncIdeaDto> ideas, List<String> deletedFriends) {
+		this.token = token;
+		this.full = full;
+		this.friends = friends;
+		this.ideas = ideas;
+		this.deletedFriends = deletedFriends;
+	}
+}
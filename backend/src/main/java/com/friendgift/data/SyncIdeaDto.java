@@ -0,0 +1,18 @@
+package com.friendgift.data;
+
+public class SyncIdeaDto {
+	public String id;
+	public String friendId;
+	public String text;
+	public String createdAt;
+
+	public SyncIdeaDto() {
+	}
+
+	public SyncIdeaDto(String id, String friendId, String text, String createdAt) {
+		this.id = id;
+		this.friendId = friendId;
+		this.text = text;
+		this.createdAt = createdAt;
+	}
+}
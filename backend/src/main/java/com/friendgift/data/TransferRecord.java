@@ -0,0 +1,42 @@
+package com.friendgift.data;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of an export: a friend, or an idea of the friend exported before it. Ids are those of the
+ * exporting account; an import gives everything new ids and links ideas through {@link #friendId}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransferRecord {
+	public static final String FRIEND = "friend";
+	public static final String IDEA = "idea";
+
+	public String type;
+	public String id;
+	public String friendId;
+	public String name;
+	public String text;
+	public String createdAt;
+
+	public TransferRecord() {
+	}
+
+	static TransferRecord friend(String id, String name, String createdAt) {
+		TransferRecord record = new TransferRecord();
+		record.type = FRIEND;
+		record.id = id;
+		record.name = name;
+		record.createdAt = createdAt;
+		return record;
+	}
+
+	static TransferRecord idea(String id, String friendId, String text, String createdAt) {
+		TransferRecord record = new TransferRecord();
+		record.type = IDEA;
+		record.id = id;
+		record.friendId = friendId;
+		record.text = text;
+		record.createdAt = createdAt;
+		return record;
+	}
+}
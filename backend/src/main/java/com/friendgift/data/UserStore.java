@@ -1,13 +1,20 @@
 package com.friendgift.data;
 
+import com.friendgift.auth.PasswordHasher;
+import com.friendgift.search.IdeaDuplicates;
+import com.friendgift.search.IdeaSignature;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @ApplicationScoped
 public class UserStore {
@@ -20,19 +27,44 @@ public class UserStore {
 	@Inject
 	GiftIdeaRepository giftIdeaRepository;
 
+	@Inject
+	Event<DataChanged> changes;
+
+	@Inject
+	ChangeLog changeLog;
+
+	@Inject
+	IdeaGroupCommit groupCommit;
+
+	@Inject
+	IdeaDuplicates duplicates;
+
+	@Inject
+	PasswordHasher passwordHasher;
+
 	public boolean isValidCredentials(String username, String password) {
 		if (username == null || password == null) {
 			return false;
 		}
 		AppUser user = userRepository.findById(username);
-		return user != null && password.equals(user.password);
+		if (user == null) {
+			return passwordHasher.verifyUnknownUser(password) != PasswordHasher.Verification.MISMATCH;
+		}
+
+		// Runs on the hashing pool; no transaction (and so no pooled connection) is held meanwhile.
+		PasswordHasher.Verification verification = passwordHasher.verify(password, user.password);
+		if (verification == PasswordHasher.Verification.MATCH_NEEDS_REHASH) {
+			String rehashed = passwordHasher.hash(password);
+			QuarkusTransaction.requiringNew().run(() ->
+					userRepository.update("password = ?1 where username = ?2", rehashed, user.username));
+		}
+		return verification != PasswordHasher.Verification.MISMATCH;
 	}
 
 	public boolean registerUser(String username, String password) {
 		return registerUserDetailed(username, password) == RegistrationOutcome.CREATED;
 	}
 
-	@Transactional
 	public RegistrationOutcome registerUserDetailed(String username, String password) {
 		String u = normalizeUsername(username);
 		String p = normalizePassword(password);
@@ -43,8 +75,15 @@ public class UserStore {
 			return RegistrationOutcome.EXISTS;
 		}
 
-		userRepository.persist(new AppUser(u, p));
-		return RegistrationOutcome.CREATED;
+		// Hash before opening the transaction so the connection is not held while bcrypt runs.
+		String hash = passwordHasher.hash(p);
+		return QuarkusTransaction.requiringNew().call(() -> {
+			if (userRepository.findById(u) != null) {
+				return RegistrationOutcome.EXISTS;
+			}
+			userRepository.persist(new AppUser(u, hash));
+			return RegistrationOutcome.CREATED;
+		});
 	}
 
 	public enum RegistrationOutcome {
@@ -53,10 +92,45 @@ public class UserStore {
 		INVALID
 	}
 
-	public List<FriendDto> listFriends(String username) {
-		return friendRepository.listByOwnerUsername(username).stream()
-				.map(f -> new FriendDto(f.id, f.name))
-				.toList();
+	public static final int DEFAULT_PAGE_SIZE = 50;
+	public static final int MAX_PAGE_SIZE = 200;
+	public static final int MAX_BATCH_SIZE = 200;
+
+	/**
+	 * Friends page read as plain columns straight into DTOs: no entity is loaded, so nothing is added to
+	 * the session or dirty-checked.
+	 */
+	public Optional<CursorPage<FriendDto>> listFriends(String username, String cursor, Integer limit) {
+		return page(cursor, limit, (after, size) -> friendRepository.listByOwnerUsername(username, after, size),
+				UserStore::toFriendDto);
+	}
+
+	/**
+	 * Friends page enriched with idea counts and the newest idea, from a single query.
+	 */
+	public Optional<CursorPage<FriendOverviewDto>> listFriendsOverview(String username, String cursor, Integer limit) {
+		return page(cursor, limit, (after, size) -> friendRepository.listOverviewByOwnerUsername(username, after, size),
+				UserStore::toOverview);
+	}
+
+	public Optional<FriendOverviewDto> getFriendOverview(String username, String friendId) {
+		return Ids.parse(friendId)
+				.flatMap(id -> friendRepository.findOverviewByOwnerAndId(username, id))
+				.map(UserStore::toOverview);
+	}
+
+	/** A {@link FriendRepository#listByOwnerUsername} row. */
+	static FriendDto toFriendDto(Object[] row) {
+		return new FriendDto(row[0].toString(), (String) row[1]);
+	}
+
+	/** A {@link GiftIdeaRepository#listByOwnerAndFriendNewestFirst} row. */
+	static GiftIdeaDto toIdeaDto(Object[] row) {
+		return new GiftIdeaDto(row[0].toString(), (String) row[1], row[2].toString());
+	}
+
+	private static FriendOverviewDto toOverview(Object[] row) {
+		return new FriendOverviewDto(row[0].toString(), (String) row[1], ((Number) row[3]).longValue(), (String) row[4]);
 	}
 
 	@Transactional
@@ -65,72 +139,200 @@ public class UserStore {
 		if (clean == null) {
 			return Optional.empty();
 		}
-		AppUser owner = userRepository.findById(username);
-		if (owner == null) {
+
+		// The owner is the authenticated caller, so a reference is enough: the write is a single INSERT.
+		AppUser owner = userRepository.getEntityManager().getReference(AppUser.class, username);
+		Friend record = new Friend(Ids.next(), owner, clean, Instant.now());
+		friendRepository.persist(record);
+		publish(DataChanged.friendCreated(username, record.id.toString(), record.name, record.createdAt));
+		return Optional.of(toDto(record));
+	}
+
+	/**
+	 * Creates every valid name in one transaction; the inserts are flushed together as a JDBC batch.
+	 * Empty means the batch itself is unacceptable (missing, empty or over {@link #MAX_BATCH_SIZE}).
+	 */
+	@Transactional
+	public Optional<List<BatchItem<FriendDto>>> addFriends(String username, List<FriendUpsertRequest> requests) {
+		if (!isValidBatch(requests)) {
 			return Optional.empty();
 		}
 
-		Friend record = new Friend(UUID.randomUUID().toString(), owner, clean, Instant.now());
-		friendRepository.persist(record);
-		return Optional.of(new FriendDto(record.id, record.name));
+		AppUser owner = userRepository.getEntityManager().getReference(AppUser.class, username);
+		// Distinct microseconds keep the listing in request order (timestamps are stored to the microsecond).
+		Instant now = Instant.now();
+		List<BatchItem<FriendDto>> results = new ArrayList<>(requests.size());
+		List<DataChanged> created = new ArrayList<>(requests.size());
+		for (int i = 0; i < requests.size(); i++) {
+			FriendUpsertRequest request = requests.get(i);
+			String clean = normalizeName(request == null ? null : request.name);
+			if (clean == null) {
+				results.add(new BatchItem<>(i, WriteResult.Status.INVALID, null));
+				continue;
+			}
+			Friend record = new Friend(Ids.next(), owner, clean, now.plusNanos(i * 1000L));
+			friendRepository.persist(record);
+			created.add(DataChanged.friendCreated(username, record.id.toString(), record.name, record.createdAt));
+			results.add(new BatchItem<>(i, WriteResult.Status.OK, toDto(record)));
+		}
+		publish(username, created);
+		return Optional.of(results);
 	}
 
 	@Transactional
-	public Optional<FriendDto> updateFriend(String username, String friendId, String name) {
+	public WriteResult<FriendDto> updateFriend(String username, String friendId, String name) {
 		String clean = normalizeName(name);
 		if (clean == null) {
-			return Optional.empty();
+			return WriteResult.invalid();
 		}
 
-		Optional<Friend> friend = findFriend(username, friendId);
-		if (friend.isEmpty()) {
-			return Optional.empty();
+		Optional<UUID> id = Ids.parse(friendId);
+		if (id.isEmpty() || friendRepository.renameForOwner(username, id.get(), clean) == 0) {
+			return WriteResult.notFound();
 		}
-
-		friend.get().name = clean;
-		return Optional.of(new FriendDto(friend.get().id, friend.get().name));
+		publish(DataChanged.friendRenamed(username, id.get().toString(), clean));
+		return WriteResult.ok(new FriendDto(id.get().toString(), clean));
 	}
 
 	@Transactional
 	public boolean deleteFriend(String username, String friendId) {
-		Optional<Friend> friend = findFriend(username, friendId);
-		if (friend.isEmpty()) {
+		Optional<UUID> id = Ids.parse(friendId);
+		if (id.isEmpty() || friendRepository.deleteForOwner(username, id.get()) == 0) {
 			return false;
 		}
-		friendRepository.delete(friend.get());
+		publish(DataChanged.friendDeleted(username, id.get().toString()));
 		return true;
 	}
 
 	public Optional<Friend> findFriend(String username, String friendId) {
-		return friendRepository.findByOwnerAndId(username, friendId);
+		return Ids.parse(friendId).flatMap(id -> friendRepository.findByOwnerAndId(username, id));
 	}
 
-	public List<GiftIdeaDto> listIdeas(String username, String friendId) {
-		Optional<Friend> friend = findFriend(username, friendId);
+	/**
+	 * Ideas page in one statement that also checks the friend belongs to {@code username}; like
+	 * {@link #listFriends}, no entity is loaded.
+	 */
+	public Optional<CursorPage<GiftIdeaDto>> listIdeas(String username, String friendId, String cursor, Integer limit) {
+		// Unknown, deleted or someone else's friend: no rows, so an empty page.
+		Optional<UUID> friend = Ids.parse(friendId);
+		return page(cursor, limit, (after, size) -> friend
+				.map(id -> giftIdeaRepository.listByOwnerAndFriendNewestFirst(username, id, after, size))
+				.orElse(List.of()), UserStore::toIdeaDto);
+	}
+
+	/**
+	 * One conditional INSERT; with group commit enabled it shares its transaction with the inserts of
+	 * other concurrent requests (see {@link IdeaGroupCommit}), otherwise it commits on its own. A text
+	 * nearly identical to one of the friend's ideas is flagged or refused first (see {@link IdeaDuplicates}).
+	 */
+	public WriteResult<GiftIdeaDto> addIdea(String username, String friendId, String text) {
+		String clean = normalizeIdeaText(text);
+		if (clean == null) {
+			return WriteResult.invalid();
+		}
+		Optional<UUID> friend = Ids.parse(friendId);
 		if (friend.isEmpty()) {
-			return List.of();
+			return WriteResult.notFound();
 		}
-		return giftIdeaRepository.listByFriendIdNewestFirst(friend.get().id).stream()
-				.map(ir -> new GiftIdeaDto(ir.id, ir.text, ir.createdAt.toString()))
-				.toList();
+		byte[] signature = IdeaSignature.of(clean);
+		GiftIdeaDto duplicate = null;
+		if (duplicates.isEnabled()) {
+			IdeaDuplicates.Lookup lookup = duplicates.lookup(username, friend.get(), signature);
+			if (!lookup.friendExists) {
+				return WriteResult.notFound();
+			}
+			duplicate = lookup.duplicate;
+			if (duplicate != null && duplicates.rejects()) {
+				return WriteResult.conflict(duplicate);
+			}
+		}
+
+		WriteResult<GiftIdeaDto> result = groupCommit.isEnabled()
+				? groupCommit.insert(username, friend.get(), clean, signature)
+				: QuarkusTransaction.requiringNew().call(() -> {
+					UUID id = Ids.next();
+					Instant createdAt = Instant.now();
+					if (giftIdeaRepository.insertForOwner(username, friend.get(), id, clean, createdAt, signature) == 0) {
+						return WriteResult.notFound();
+					}
+					publish(DataChanged.ideaCreated(username, friend.get().toString(), id.toString(), clean, createdAt));
+					return WriteResult.ok(new GiftIdeaDto(id.toString(), clean, createdAt.toString()));
+				});
+		if (duplicate != null && result.status == WriteResult.Status.OK) {
+			result.value.duplicateOf = duplicate.id;
+		}
+		return result;
 	}
 
+	/**
+	 * Bulk variant of {@link #addIdea}: ownership is checked once for the whole batch, then every valid
+	 * text is inserted in one transaction as a JDBC batch. Near-duplicates of existing ideas are flagged
+	 * or reported as {@link WriteResult.Status#CONFLICT} items; items of one batch are not compared.
+	 */
 	@Transactional
-	public Optional<GiftIdeaDto> addIdea(String username, String friendId, String text) {
-		if (text == null || text.trim().isEmpty()) {
-			return Optional.empty();
+	public WriteResult<List<BatchItem<GiftIdeaDto>>> addIdeas(String username, String friendId, List<NewGiftIdeaRequest> requests) {
+		if (!isValidBatch(requests)) {
+			return WriteResult.invalid();
 		}
 		Optional<Friend> friend = findFriend(username, friendId);
 		if (friend.isEmpty()) {
-			return Optional.empty();
+			return WriteResult.notFound();
 		}
 
-		GiftIdea record = new GiftIdea(UUID.randomUUID().toString(), friend.get(), text.trim(), Instant.now());
-		giftIdeaRepository.persist(record);
-		return Optional.of(new GiftIdeaDto(record.id, record.text, record.createdAt.toString()));
+		Instant now = Instant.now();
+		List<BatchItem<GiftIdeaDto>> results = new ArrayList<>(requests.size());
+		List<DataChanged> created = new ArrayList<>(requests.size());
+		for (int i = 0; i < requests.size(); i++) {
+			NewGiftIdeaRequest request = requests.get(i);
+			String clean = normalizeIdeaText(request == null ? null : request.text);
+			if (clean == null) {
+				results.add(new BatchItem<>(i, WriteResult.Status.INVALID, null));
+				continue;
+			}
+			GiftIdea idea = new GiftIdea(Ids.next(), friend.get(), clean, now.plusNanos(i * 1000L));
+			GiftIdeaDto duplicate = duplicates.isEnabled()
+					? duplicates.lookup(username, idea.friend.id, idea.signature).duplicate
+					: null;
+			if (duplicate != null && duplicates.rejects()) {
+				results.add(new BatchItem<>(i, WriteResult.Status.CONFLICT, duplicate));
+				continue;
+			}
+			giftIdeaRepository.persist(idea);
+			created.add(DataChanged.ideaCreated(username, idea.friend.id.toString(), idea.id.toString(), idea.text, idea.createdAt));
+			GiftIdeaDto dto = toDto(idea);
+			dto.duplicateOf = duplicate == null ? null : duplicate.id;
+			results.add(new BatchItem<>(i, WriteResult.Status.OK, dto));
+		}
+		publish(username, created);
+		return WriteResult.ok(results);
 	}
 
-	private static String normalizeUsername(String username) {
+	/**
+	 * Records the change in the owner's {@link ChangeLog} and announces it; call inside the writing transaction.
+	 */
+	private void publish(DataChanged change) {
+		changeLog.append(change);
+		changes.fire(change);
+	}
+
+	private void publish(String username, List<DataChanged> batch) {
+		changeLog.append(username, batch);
+		batch.forEach(changes::fire);
+	}
+
+	static FriendDto toDto(Friend friend) {
+		return new FriendDto(friend.id.toString(), friend.name);
+	}
+
+	static GiftIdeaDto toDto(GiftIdea idea) {
+		return new GiftIdeaDto(idea.id.toString(), idea.text, idea.createdAt.toString());
+	}
+
+	private static boolean isValidBatch(List<?> requests) {
+		return requests != null && !requests.isEmpty() && requests.size() <= MAX_BATCH_SIZE;
+	}
+
+	static String normalizeUsername(String username) {
 		if (username == null) {
 			return null;
 		}
@@ -156,7 +358,65 @@ public class UserStore {
 		return p;
 	}
 
-	private static String normalizeName(String name) {
+	/** One page of rows {@code [id, ..., createdAt, ...]} in the order of their {@link PageCursor}. */
+	@FunctionalInterface
+	private interface PageQuery {
+		List<Object[]> rows(PageCursor after, int limit);
+	}
+
+	/**
+	 * The page after {@code cursor}, or empty when the limit or the cursor is invalid. One extra row
+	 * tells whether another page exists without a count query; the last row kept becomes the next cursor.
+	 */
+	private static <T> Optional<CursorPage<T>> page(String cursor, Integer limit, PageQuery query,
+			Function<Object[], T> mapper) {
+		int size = normalizeLimit(limit);
+		if (size < 1) {
+			return Optional.empty();
+		}
+		PageCursor after = null;
+		if (cursor != null && !cursor.isEmpty()) {
+			after = PageCursor.decode(cursor).orElse(null);
+			if (after == null) {
+				return Optional.empty();
+			}
+		}
+
+		List<Object[]> rows = query.rows(after, size + 1);
+		String next = null;
+		if (rows.size() > size) {
+			rows = rows.subList(0, size);
+			Object[] last = rows.get(size - 1);
+			next = new PageCursor((Instant) last[2], (UUID) last[0]).encode();
+		}
+		List<T> items = rows.stream()
+				.map(mapper)
+				.toList();
+		return Optional.of(new CursorPage<>(items, next));
+	}
+
+	private static int normalizeLimit(Integer limit) {
+		if (limit == null) {
+			return DEFAULT_PAGE_SIZE;
+		}
+		if (limit < 1) {
+			return 0;
+		}
+		return Math.min(limit, MAX_PAGE_SIZE);
+	}
+
+	static String normalizeIdeaText(String text) {
+		if (text == null) {
+			return null;
+		}
+		String clean = text.trim();
+		if (clean.isEmpty() || clean.length() > 400) {
+			return null;
+		}
+		return clean;
+	}
+
+	static String normalizeName(String name) {
 		if (name == null) {
 			return null;
 		}
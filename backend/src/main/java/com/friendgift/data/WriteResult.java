@@ -0,0 +1,39 @@
+package com.friendgift.data;
+
+/**
+ * Outcome of a conditional write: the affected-row count decides between {@link Status#OK} and
+ * {@link Status#NOT_FOUND}, input validation decides {@link Status#INVALID}. {@link Status#CONFLICT}
+ * is a write refused because of existing data, which is then the value.
+ */
+public class WriteResult<T> {
+	public enum Status {
+		OK,
+		NOT_FOUND,
+		INVALID,
+		CONFLICT
+	}
+
+	public final Status status;
+	public final T value;
+
+	private WriteResult(Status status, T value) {
+		this.status = status;
+		this.value = value;
+	}
+
+	public static <T> WriteResult<T> ok(T value) {
+		return new WriteResult<>(Status.OK, value);
+	}
+
+	public static <T> WriteResult<T> notFound() {
+		return new WriteResult<>(Status.NOT_FOUND, null);
+	}
+
+	public static <T> WriteResult<T> invalid() {
+		return new WriteResult<>(Status.INVALID, null);
+	}
+
+	public static <T> WriteResult<T> conflict(T existing) {
+		return new WriteResult<>(Status.CONFLICT, existing);
+	}
+}
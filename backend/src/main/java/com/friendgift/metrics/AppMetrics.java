@@ -0,0 +1,128 @@
+package com.friendgift.metrics;
+
+import com.friendgift.api.AdaptiveLimiter;
+import com.friendgift.api.OverloadProtection;
+import com.friendgift.auth.CachingJWTParser;
+import com.friendgift.auth.PasswordHasher;
+import com.friendgift.auth.TokenRevocations;
+import com.friendgift.data.ChangeBroker;
+import com.friendgift.data.FriendPurge;
+import com.friendgift.data.IdeaGroupCommit;
+import com.friendgift.search.IdeaDuplicates;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+
+/**
+ * Application meters exported at {@code /q/metrics}, next to the built-in HTTP, Hibernate and JDBC pool
+ * ones: token cache effectiveness, password-hashing backlog, the adaptive concurrency limits, the
+ * change event streams, idea group commit (inserts per commit = inserts / commits), the purge of
+ * deleted friends, near-duplicate ideas detected, and token revocation (database checks are the
+ * Bloom filter's positives).
+ */
+@Singleton
+public class AppMetrics implements MeterBinder {
+	@Inject
+	CachingJWTParser jwtParser;
+
+	@Inject
+	PasswordHasher passwordHasher;
+
+	@Inject
+	OverloadProtection overloadProtection;
+
+	@Inject
+	ChangeBroker changeBroker;
+
+	@Inject
+	IdeaGroupCommit ideaGroupCommit;
+
+	@Inject
+	FriendPurge friendPurge;
+
+	@Inject
+	IdeaDuplicates ideaDuplicates;
+
+	@Inject
+	TokenRevocations tokenRevocations;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("friendgift.jwt.cache.requests", jwtParser, CachingJWTParser::hits)
+				.tag("result", "hit")
+				.register(registry);
+		FunctionCounter.builder("friendgift.jwt.cache.requests", jwtParser, CachingJWTParser::misses)
+				.tag("result", "miss")
+				.register(registry);
+		Gauge.builder("friendgift.jwt.cache.size", jwtParser, CachingJWTParser::size)
+				.register(registry);
+		Gauge.builder("friendgift.password.queue.depth", passwordHasher, PasswordHasher::queueDepth)
+				.register(registry);
+		bindLimiter(registry, "auth", overloadProtection.auth());
+		bindLimiter(registry, "data", overloadProtection.data());
+		Gauge.builder("friendgift.events.streams", changeBroker, ChangeBroker::openStreams)
+				.register(registry);
+		FunctionCounter.builder("friendgift.events.evicted", changeBroker, ChangeBroker::evictedStreams)
+				.register(registry);
+		Gauge.builder("friendgift.ideas.group.commit.queue", ideaGroupCommit, IdeaGroupCommit::queueDepth)
+				.register(registry);
+		FunctionCounter.builder("friendgift.ideas.group.commit.commits", ideaGroupCommit, IdeaGroupCommit::commits)
+				.register(registry);
+		FunctionCounter.builder("friendgift.ideas.group.commit.inserts", ideaGroupCommit, IdeaGroupCommit::inserts)
+				.register(registry);
+		FunctionCounter.builder("friendgift.purge.friends", friendPurge, FriendPurge::purgedFriends)
+				.register(registry);
+		FunctionCounter.builder("friendgift.purge.ideas", friendPurge, FriendPurge::purgedIdeas)
+				.register(registry);
+		FunctionCounter.builder("friendgift.ideas.duplicates", ideaDuplicates, IdeaDuplicates::detected)
+				.register(registry);
+		FunctionCounter.builder("friendgift.revocation.database.checks", tokenRevocations, TokenRevocations::databaseChecks)
+				.register(registry);
+		FunctionCounter.builder("friendgift.revocation.rejected", tokenRevocations, TokenRevocations::rejected)
+				.register(registry);
+	}
+
+	private static void bindLimiter(MeterRegistry registry, String group, AdaptiveLimiter limiter) {
+		Gauge.builder("friendgift.limiter.limit", limiter, AdaptiveLimiter::limit)
+				.tag("group", group)
+				.register(registry);
+		Gauge.builder("friendgift.limiter.inflight", limiter, AdaptiveLimiter::inflight)
+				.tag("group", group)
+				.register(registry);
+		FunctionCounter.builder("friendgift.limiter.rejected", limiter, AdaptiveLimiter::rejected)
+				.tag("group", group)
+				.register(registry);
+	}
+
+	/**
+	 * Per-endpoint latency histograms (Prometheus buckets, so percentiles can be aggregated across
+	 * instances) for every HTTP request.
+	 */
+	@Produces
+	@Singleton
+	MeterFilter httpServerHistograms() {
+		return new MeterFilter() {
+			@Override
+			public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+				if (!id.getName().equals("http.server.requests")) {
+					return config;
+				}
+				return DistributionStatisticConfig.builder()
+						.percentilesHistogram(true)
+						.minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+						.maximumExpectedValue((double) Duration.ofSeconds(10).toNanos())
+						.build()
+						.merge(config);
+			}
+		};
+	}
+}
@@ -0,0 +1,45 @@
+package com.friendgift.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Inject;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+
+/**
+ * Records how much database work each request did, per endpoint: JDBC statements, the queries among
+ * them, entities loaded, and flushes (counted by {@link RequestStatementInspector} and
+ * {@link RequestWorkInterceptor}). Climbing counts on a list endpoint are the signature of an N+1.
+ * Latency itself is measured by the built-in {@code http.server.requests} timer.
+ */
+public class RequestMetricsFilter {
+	@Inject
+	MeterRegistry registry;
+
+	@ServerRequestFilter
+	void start() {
+		RequestQueryStats.start();
+	}
+
+	@ServerResponseFilter
+	void end(SimpleResourceInfo resource) {
+		RequestQueryStats stats = RequestQueryStats.end();
+		if (stats == null || resource == null || resource.getResourceClass() == null) {
+			return;
+		}
+		String endpoint = resource.getResourceClass().getSimpleName() + "." + resource.getMethodName();
+		record("friendgift.request.statements", endpoint, stats.statements);
+		record("friendgift.request.queries", endpoint, stats.queries);
+		record("friendgift.request.entity.loads", endpoint, stats.entityLoads);
+		record("friendgift.request.flushes", endpoint, stats.flushes);
+	}
+
+	private void record(String name, String endpoint, long value) {
+		DistributionSummary.builder(name)
+				.tag("endpoint", endpoint)
+				.publishPercentileHistogram()
+				.register(registry)
+				.record(value);
+	}
+}
@@ -0,0 +1,31 @@
+package com.friendgift.metrics;
+
+/**
+ * Database work done while serving the current request. Blocking endpoints run their filters and
+ * their Hibernate calls on one thread, so a thread-local is enough to attribute the work.
+ */
+final class RequestQueryStats {
+	private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+	long statements;
+	long queries;
+	long entityLoads;
+	long flushes;
+
+	static RequestQueryStats start() {
+		RequestQueryStats stats = new RequestQueryStats();
+		CURRENT.set(stats);
+		return stats;
+	}
+
+	/** Null outside a request (startup, scheduled work, non-blocking endpoints). */
+	static RequestQueryStats current() {
+		return CURRENT.get();
+	}
+
+	static RequestQueryStats end() {
+		RequestQueryStats stats = CURRENT.get();
+		CURRENT.remove();
+		return stats;
+	}
+}
@@ -0,0 +1,31 @@
+package com.friendgift.metrics;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares for the current request ({@link RequestQueryStats}),
+ * and the reads among them. A JDBC batch is prepared once, so it counts once. The SQL itself is
+ * returned unchanged.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class RequestStatementInspector implements StatementInspector {
+	@Override
+	public String inspect(String sql) {
+		RequestQueryStats stats = RequestQueryStats.current();
+		if (stats != null) {
+			stats.statements++;
+			if (isQuery(sql)) {
+				stats.queries++;
+			}
+		}
+		return sql;
+	}
+
+	private static boolean isQuery(String sql) {
+		String start = sql.stripLeading();
+		return start.regionMatches(true, 0, "select", 0, 6) || start.regionMatches(true, 0, "with", 0, 4);
+	}
+}
@@ -0,0 +1,33 @@
+package com.friendgift.metrics;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+import java.util.Iterator;
+
+/**
+ * Counts the entities loaded (eagerly, lazily, or as collection elements) and the flushes of the
+ * current request ({@link RequestQueryStats}). Shared by all sessions, so it keeps no state of its own.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class RequestWorkInterceptor implements Interceptor {
+	@Override
+	public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+		RequestQueryStats stats = RequestQueryStats.current();
+		if (stats != null) {
+			stats.entityLoads++;
+		}
+		return false;
+	}
+
+	@Override
+	public void postFlush(Iterator<Object> entities) {
+		RequestQueryStats stats = RequestQueryStats.current();
+		if (stats != null) {
+			stats.flushes++;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.friendgift.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LSH buckets of one friend's idea signatures: one hash map per band, from band key to the ideas with
+ * that band. A lookup compares the new signature only with the ideas sharing at least one of its
+ * {@link IdeaSignature#BANDS} buckets, so its cost depends on the number of similar ideas, not on the
+ * number of ideas.
+ */
+final class FriendSignatures {
+	static final class Entry {
+		final String id;
+		final String text;
+		final Instant createdAt;
+		final byte[] signature;
+
+		Entry(String id, String text, Instant createdAt, byte[] signature) {
+			this.id = id;
+			this.text = text;
+			this.createdAt = createdAt;
+			this.signature = signature;
+		}
+	}
+
+	private final List<Map<Long, List<Entry>>> bands = new ArrayList<>(IdeaSignature.BANDS);
+	private final Set<String> ids = new HashSet<>();
+
+	FriendSignatures() {
+		for (int band = 0; band < IdeaSignature.BANDS; band++) {
+			bands.add(new HashMap<>());
+		}
+	}
+
+	/**
+	 * Adding an idea twice is a no-op.
+	 */
+	synchronized void add(String id, String text, Instant createdAt, byte[] signature) {
+		if (!ids.add(id)) {
+			return;
+		}
+		Entry entry = new Entry(id, text, createdAt, signature);
+		for (int band = 0; band < IdeaSignature.BANDS; band++) {
+			bands.get(band).computeIfAbsent(IdeaSignature.bandKey(signature, band), k -> new ArrayList<>(1)).add(entry);
+		}
+	}
+
+	/**
+	 * Ideas held, plus one so that a friend without ideas still weighs something in the cache.
+	 */
+	synchronized int weight() {
+		return ids.size() + 1;
+	}
+
+	/**
+	 * The most similar idea with an estimated similarity of at least {@code threshold}, or null.
+	 */
+	synchronized Entry closest(byte[] signature, double threshold) {
+		Entry best = null;
+		double bestSimilarity = threshold;
+		for (int band = 0; band < IdeaSignature.BANDS; band++) {
+			List<Entry> bucket = bands.get(band).get(IdeaSignature.bandKey(signature, band));
+			if (bucket == null) {
+				continue;
+			}
+			for (Entry candidate : bucket) {
+				double similarity = IdeaSignature.similarity(signature, candidate.signature);
+				if (similarity > bestSimilarity || (best == null && similarity == bestSimilarity)) {
+					best = candidate;
+					bestSimilarity = similarity;
+				}
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,112 @@
+package com.friendgift.search;
+
+import com.friendgift.data.DataChanged;
+import com.friendgift.data.GiftIdeaRepository;
+import com.friendgift.data.IdeasPurged;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Gift autocomplete learned from every user's ideas: built once at startup from {@code gift_idea}
+ * plus the seed list, then fed each committed idea; ideas purged with their friend are retracted.
+ */
+@ApplicationScoped
+public class GiftSuggestions {
+	public static final int DEFAULT_LIMIT = 8;
+	private static final String SEED_RESOURCE = "suggestions-seed.txt";
+
+	@Inject
+	GiftIdeaRepository giftIdeaRepository;
+
+	@ConfigProperty(name = "friendgift.suggestions.min-owners", defaultValue = "3")
+	int minOwners;
+
+	@ConfigProperty(name = "friendgift.suggestions.half-life", defaultValue = "30d")
+	Duration halfLife;
+
+	@ConfigProperty(name = "friendgift.suggestions.max-pending", defaultValue = "100000")
+	int maxPending;
+
+	private SuggestionTrie trie;
+
+	// After DataSeeder (default priority), so the demo ideas are included.
+	void onStart(@Observes @Priority(Interceptor.Priority.APPLICATION + 600) StartupEvent event) {
+		build();
+	}
+
+	@Transactional
+	void build() {
+		Instant now = Instant.now();
+		SuggestionTrie built = new SuggestionTrie(minOwners, maxPending, halfLife, now);
+		for (String seed : readSeeds()) {
+			built.add(seed, null, now);
+		}
+		try (Stream<Object[]> rows = giftIdeaRepository.streamSuggestionRows()) {
+			rows.forEach(row -> built.add((String) row[0], (String) row[1], (Instant) row[2]));
+		}
+		trie = built;
+	}
+
+	/**
+	 * Best phrases starting with {@code prefix} (accents, case and extra spaces ignored); an empty
+	 * prefix gives the overall favourites.
+	 */
+	public List<String> suggest(String prefix, Integer limit) {
+		int size = limit == null ? DEFAULT_LIMIT : Math.max(0, Math.min(limit, SuggestionTrie.TOP_K));
+		List<String> out = new ArrayList<>(size);
+		if (prefix == null || prefix.length() <= SuggestionTrie.MAX_LENGTH) {
+			trie.suggest(prefix == null ? "" : prefix, size, out);
+		}
+		return out;
+	}
+
+	void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) DataChanged change) {
+		if (change.kind == DataChanged.Kind.IDEA_CREATED) {
+			trie.add(change.text, change.owner, change.createdAt);
+		}
+	}
+
+	void onPurge(@Observes(during = TransactionPhase.AFTER_SUCCESS) IdeasPurged purged) {
+		for (String text : purged.texts) {
+			trie.retract(text, purged.owner);
+		}
+	}
+
+	private static List<String> readSeeds() {
+		List<String> seeds = new ArrayList<>();
+		InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(SEED_RESOURCE);
+		if (in == null) {
+			return seeds;
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isBlank() && !line.startsWith("#")) {
+					seeds.add(line.trim());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return seeds;
+	}
+}
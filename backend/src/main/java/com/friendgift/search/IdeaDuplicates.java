@@ -0,0 +1,148 @@
+package com.friendgift.search;
+
+import com.friendgift.data.DataChanged;
+import com.friendgift.data.GiftIdeaDto;
+import com.friendgift.data.GiftIdeaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near-duplicate check for new ideas ("Montre connectée" / "montre connectee !"), against the other
+ * ideas of the same friend. {@code friendgift.ideas.duplicates.mode} decides what happens to a match:
+ * {@code flag} creates the idea and reports the match in {@link GiftIdeaDto#duplicateOf}, {@code reject}
+ * refuses it (409 with the existing idea), {@code off} skips the check.
+ * <p>
+ * Each friend's signatures live in a {@link FriendSignatures} LSH index, loaded from
+ * {@code gift_idea.signature} on the friend's first insert (empty and without a query for a friend
+ * created since startup) and then kept current from committed {@link DataChanged} events, like
+ * {@link IdeaSearchIndex}. The cache is bounded by the ideas it holds ({@code max-ideas}), not by friends,
+ * so a friend with thousands of ideas counts as much as hundreds of small ones. The check is best effort:
+ * two near-identical ideas sent at the same moment, or in the same batch, can both get in.
+ */
+@ApplicationScoped
+public class IdeaDuplicates {
+	public enum Mode {
+		OFF,
+		FLAG,
+		REJECT
+	}
+
+	/** Outcome of {@link #lookup}: {@code friendExists} is false for a friend the caller does not own. */
+	public static final class Lookup {
+		static final Lookup UNKNOWN_FRIEND = new Lookup(false, null);
+		static final Lookup NO_DUPLICATE = new Lookup(true, null);
+
+		public final boolean friendExists;
+		/** The most similar existing idea, when one is close enough. */
+		public final GiftIdeaDto duplicate;
+
+		Lookup(boolean friendExists, GiftIdeaDto duplicate) {
+			this.friendExists = friendExists;
+			this.duplicate = duplicate;
+		}
+	}
+
+	@ConfigProperty(name = "friendgift.ideas.duplicates.mode", defaultValue = "flag")
+	Mode mode;
+
+	@ConfigProperty(name = "friendgift.ideas.duplicates.threshold", defaultValue = "0.8")
+	double threshold;
+
+	@ConfigProperty(name = "friendgift.ideas.duplicates.max-ideas", defaultValue = "200000")
+	long maxIdeas;
+
+	@Inject
+	GiftIdeaRepository giftIdeaRepository;
+
+	private final LongAdder detected = new LongAdder();
+	private Cache<String, FriendSignatures> friends;
+
+	@PostConstruct
+	void init() {
+		friends = Caffeine.newBuilder()
+				.maximumWeight(maxIdeas)
+				.weigher((String key, FriendSignatures index) -> index.weight())
+				.build();
+	}
+
+	public boolean isEnabled() {
+		return mode != Mode.OFF;
+	}
+
+	public boolean rejects() {
+		return mode == Mode.REJECT;
+	}
+
+	public long detected() {
+		return detected.sum();
+	}
+
+	/**
+	 * Compares {@code signature} ({@link IdeaSignature#of}) with the ideas of the owner's friend.
+	 */
+	public Lookup lookup(String username, UUID friendId, byte[] signature) {
+		// A null load result (no such friend for this owner) is not cached.
+		FriendSignatures index = friends.get(key(username, friendId.toString()), k -> load(username, friendId));
+		if (index == null) {
+			return Lookup.UNKNOWN_FRIEND;
+		}
+		FriendSignatures.Entry match = index.closest(signature, threshold);
+		if (match == null) {
+			return Lookup.NO_DUPLICATE;
+		}
+		detected.increment();
+		return new Lookup(true, new GiftIdeaDto(match.id, match.text, match.createdAt.toString()));
+	}
+
+	void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) DataChanged change) {
+		if (!isEnabled()) {
+			return;
+		}
+		String key = key(change.owner, change.friendId);
+		switch (change.kind) {
+			// A new friend has no ideas: its first insert needs no query.
+			case FRIEND_CREATED -> friends.asMap().putIfAbsent(key, new FriendSignatures());
+			case FRIEND_DELETED -> friends.invalidate(key);
+			// Going through compute lets the cache weigh the grown index again.
+			case IDEA_CREATED -> friends.asMap().computeIfPresent(key, (k, index) -> {
+				index.add(change.ideaId, change.text, change.createdAt, IdeaSignature.of(change.text));
+				return index;
+			});
+			case FRIEND_UPDATED -> {
+			}
+		}
+	}
+
+	private FriendSignatures load(String username, UUID friendId) {
+		List<Object[]> rows = giftIdeaRepository.listSignatureRows(username, friendId);
+		if (rows.isEmpty()) {
+			return null;
+		}
+		FriendSignatures index = new FriendSignatures();
+		for (Object[] row : rows) {
+			if (row[0] == null) {
+				continue;
+			}
+			String text = (String) row[1];
+			// Rows written before signatures were stored get theirs computed here.
+			byte[] signature = row[3] != null ? (byte[]) row[3] : IdeaSignature.of(text);
+			index.add(row[0].toString(), text, (Instant) row[2], signature);
+		}
+		return index;
+	}
+
+	private static String key(String username, String friendId) {
+		return username + "/" + friendId;
+	}
+}
@@ -0,0 +1,20 @@
+package com.friendgift.search;
+
+public class IdeaSearchHitDto {
+	public String id;
+	public String friendId;
+	public String friendName;
+	public String text;
+	public String createdAt;
+
+	public IdeaSearchHitDto() {
+	}
+
+	public IdeaSearchHitDto(String id, String friendId, String friendName, String text, String createdAt) {
+		this.id = id;
+		this.friendId = friendId;
+		this.friendName = friendName;
+		this.text = text;
+		this.createdAt = createdAt;
+	}
+}
@@ -0,0 +1,125 @@
+package com.friendgift.search;
+
+import com.friendgift.data.CursorPage;
+import com.friendgift.data.DataChanged;
+import com.friendgift.data.FriendRepository;
+import com.friendgift.data.GiftIdeaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Full-text search over a user's gift ideas, one {@link OwnerIndex} per owner.
+ * <p>
+ * An owner's index is built from the database on their first search and then kept current from
+ * committed {@link DataChanged} events, so a search never touches {@code gift_idea}. Building and
+ * applying an event are atomic per owner: an event committed while the index is loading waits for the
+ * load and is then applied on top of it (adding an idea twice is a no-op). Events for owners without
+ * a loaded index are dropped, since the next load reads them from the database anyway.
+ */
+@ApplicationScoped
+public class IdeaSearchIndex {
+	public static final int DEFAULT_PAGE_SIZE = 20;
+	public static final int MAX_PAGE_SIZE = 100;
+	private static final int MAX_QUERY_LENGTH = 200;
+	private static final int MAX_QUERY_TOKENS = 8;
+	private static final int MAX_OFFSET = 10_000;
+
+	@Inject
+	FriendRepository friendRepository;
+
+	@Inject
+	GiftIdeaRepository giftIdeaRepository;
+
+	@ConfigProperty(name = "friendgift.search.max-owners", defaultValue = "1000")
+	long maxOwners;
+
+	private Cache<String, OwnerIndex> owners;
+
+	@PostConstruct
+	void init() {
+		owners = Caffeine.newBuilder().maximumSize(maxOwners).build();
+	}
+
+	/**
+	 * Empty when the query has no searchable term or the cursor/limit is invalid.
+	 */
+	public Optional<CursorPage<IdeaSearchHitDto>> search(String username, String query, String cursor, Integer limit) {
+		if (query == null || query.length() > MAX_QUERY_LENGTH) {
+			return Optional.empty();
+		}
+		List<String> tokens = TextNormalizer.queryTokens(query);
+		if (tokens.size() > MAX_QUERY_TOKENS) {
+			tokens = tokens.subList(tokens.size() - MAX_QUERY_TOKENS, tokens.size());
+		}
+		int size = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+		Optional<Integer> offset = decodeOffset(cursor);
+		if (tokens.isEmpty() || size < 1 || offset.isEmpty()) {
+			return Optional.empty();
+		}
+
+		OwnerIndex.Result result = owners.get(username, this::load).search(tokens, offset.get(), size);
+		List<IdeaSearchHitDto> items = result.hits.stream()
+				.map(hit -> new IdeaSearchHitDto(hit.doc.id, hit.doc.friendId, hit.friendName, hit.doc.text,
+						hit.doc.createdAt.toString()))
+				.toList();
+		String next = result.more ? encodeOffset(offset.get() + size) : null;
+		return Optional.of(new CursorPage<>(items, next));
+	}
+
+	void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) DataChanged change) {
+		owners.asMap().computeIfPresent(change.owner, (owner, index) -> {
+			switch (change.kind) {
+				case FRIEND_CREATED, FRIEND_UPDATED -> index.putFriend(change.friendId, change.text);
+				case FRIEND_DELETED -> index.removeFriend(change.friendId);
+				case IDEA_CREATED -> index.add(change.ideaId, change.friendId, change.text, change.createdAt);
+			}
+			return index;
+		});
+	}
+
+	private OwnerIndex load(String username) {
+		OwnerIndex index = new OwnerIndex();
+		for (Object[] row : friendRepository.listNamesByOwner(username)) {
+			index.putFriend(row[0].toString(), (String) row[1]);
+		}
+		for (Object[] row : giftIdeaRepository.listIndexRowsByOwner(username)) {
+			index.add(row[0].toString(), row[1].toString(), (String) row[2], (Instant) row[3]);
+		}
+		return index;
+	}
+
+	/**
+	 * Ranked results have no stable key to seek on, so the cursor is an opaque offset into the ranking.
+	 */
+	private static Optional<Integer> decodeOffset(String cursor) {
+		if (cursor == null || cursor.isEmpty()) {
+			return Optional.of(0);
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (!raw.startsWith("o:")) {
+				return Optional.empty();
+			}
+			int offset = Integer.parseInt(raw.substring(2));
+			return offset < 0 || offset > MAX_OFFSET ? Optional.empty() : Optional.of(offset);
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+
+	private static String encodeOffset(int offset) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(("o:" + offset).getBytes(StandardCharsets.UTF_8));
+	}
+}
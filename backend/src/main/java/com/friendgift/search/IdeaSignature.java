@@ -0,0 +1,88 @@
+package com.friendgift.search;
+
+import com.friendgift.data.Hashing;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signature of an idea's text, for near-duplicate detection: the minimum of {@link #HASHES}
+ * independent hashes over the character 3-grams of the text's words as {@link TextNormalizer#tokenize}
+ * sees them (case, accents, punctuation and plural endings ignored), each kept to 16 bits. The share
+ * of equal slots between two signatures estimates the Jaccard similarity of their 3-gram sets. Stored
+ * as {@link #BYTES} bytes next to the idea.
+ */
+public final class IdeaSignature {
+	public static final int HASHES = 32;
+	/** LSH banding: two signatures are candidates when all {@link #ROWS} slots of one band are equal. */
+	public static final int BANDS = 8;
+	public static final int ROWS = HASHES / BANDS;
+	public static final int BYTES = HASHES * 2;
+	private static final int SHINGLE = 3;
+	private static final long[] SEEDS = new long[HASHES];
+
+	static {
+		SplittableRandom random = new SplittableRandom(0x5EED_1DEAL);
+		for (int i = 0; i < HASHES; i++) {
+			SEEDS[i] = random.nextLong();
+		}
+	}
+
+	private IdeaSignature() {
+	}
+
+	public static byte[] of(String text) {
+		String normalized = String.join(" ", TextNormalizer.tokenize(text));
+		if (normalized.isEmpty() && text != null) {
+			normalized = text.trim();
+		}
+		int[] min = new int[HASHES];
+		Arrays.fill(min, 0xFFFF);
+		if (normalized.length() <= SHINGLE) {
+			update(min, Hashing.fnv1a(normalized, 0, normalized.length()));
+		} else {
+			for (int i = 0; i + SHINGLE <= normalized.length(); i++) {
+				update(min, Hashing.fnv1a(normalized, i, i + SHINGLE));
+			}
+		}
+		byte[] signature = new byte[BYTES];
+		for (int i = 0; i < HASHES; i++) {
+			signature[2 * i] = (byte) (min[i] >>> 8);
+			signature[2 * i + 1] = (byte) min[i];
+		}
+		return signature;
+	}
+
+	/**
+	 * Estimated Jaccard similarity, from 0 (nothing in common) to 1.
+	 */
+	public static double similarity(byte[] a, byte[] b) {
+		int equal = 0;
+		for (int i = 0; i < BYTES; i += 2) {
+			if (a[i] == b[i] && a[i + 1] == b[i + 1]) {
+				equal++;
+			}
+		}
+		return equal / (double) HASHES;
+	}
+
+	/**
+	 * The {@link #ROWS} slots of {@code band}, packed into one bucket key.
+	 */
+	public static long bandKey(byte[] signature, int band) {
+		long key = 0;
+		for (int i = band * ROWS * 2; i < (band + 1) * ROWS * 2; i++) {
+			key = key << 8 | (signature[i] & 0xFF);
+		}
+		return key;
+	}
+
+	private static void update(int[] min, long shingle) {
+		for (int i = 0; i < HASHES; i++) {
+			int h = (int) (Hashing.mix(shingle ^ SEEDS[i]) >>> 48);
+			if (h < min[i]) {
+				min[i] = h;
+			}
+		}
+	}
+}
@@ -0,0 +1,352 @@
+package com.friendgift.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over one owner's gift ideas, scored with BM25.
+ * <p>
+ * Documents get increasing ordinals, so every postings list is sorted and append-only. A removal only
+ * clears the document slot and the live counts; stale postings are skipped at query time and dropped
+ * when the index compacts itself (once dead slots outnumber live documents).
+ */
+final class OwnerIndex {
+	private static final float K1 = 1.2f;
+	private static final float B = 0.75f;
+	/** A prefix matching more terms than this is narrowed to the first ones, in term order. */
+	private static final int MAX_PREFIX_EXPANSIONS = 64;
+	private static final int COMPACT_MIN_DEAD = 1024;
+
+	static final class Doc {
+		final String id;
+		final String friendId;
+		final String text;
+		final Instant createdAt;
+		final String[] terms;
+		final int[] freqs;
+		final int length;
+
+		Doc(String id, String friendId, String text, Instant createdAt, String[] terms, int[] freqs, int length) {
+			this.id = id;
+			this.friendId = friendId;
+			this.text = text;
+			this.createdAt = createdAt;
+			this.terms = terms;
+			this.freqs = freqs;
+			this.length = length;
+		}
+	}
+
+	static final class Hit {
+		final Doc doc;
+		final String friendName;
+		final float score;
+
+		Hit(Doc doc, String friendName, float score) {
+			this.doc = doc;
+			this.friendName = friendName;
+			this.score = score;
+		}
+	}
+
+	static final class Result {
+		final List<Hit> hits;
+		final boolean more;
+
+		Result(List<Hit> hits, boolean more) {
+			this.hits = hits;
+			this.more = more;
+		}
+	}
+
+	private static final class Postings {
+		int[] ords = new int[4];
+		int[] freqs = new int[4];
+		int size;
+		/** Documents still present; the IDF uses this, not {@code size}. */
+		int live;
+
+		void add(int ord, int freq) {
+			if (size == ords.length) {
+				ords = Arrays.copyOf(ords, size * 2);
+				freqs = Arrays.copyOf(freqs, size * 2);
+			}
+			ords[size] = ord;
+			freqs[size] = freq;
+			size++;
+			live++;
+		}
+	}
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final TreeMap<String, Postings> terms = new TreeMap<>();
+	private final Map<String, Integer> ordById = new HashMap<>();
+	private final Map<String, String> friendNames = new HashMap<>();
+	private Doc[] docs = new Doc[16];
+	private int nextOrd;
+	private int liveCount;
+	private long totalLength;
+
+	/**
+	 * Idempotent: an idea that is already indexed is left as is.
+	 */
+	void add(String ideaId, String friendId, String text, Instant createdAt) {
+		List<String> tokens = TextNormalizer.tokenize(text);
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		for (String token : tokens) {
+			if (!TextNormalizer.isStopWord(token)) {
+				counts.merge(token, 1, Integer::sum);
+			}
+		}
+		String[] docTerms = counts.keySet().toArray(new String[0]);
+		int[] docFreqs = counts.values().stream().mapToInt(Integer::intValue).toArray();
+
+		lock.writeLock().lock();
+		try {
+			if (!ordById.containsKey(ideaId)) {
+				insert(new Doc(ideaId, friendId, text, createdAt, docTerms, docFreqs, tokens.size()));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	void putFriend(String friendId, String name) {
+		lock.writeLock().lock();
+		try {
+			friendNames.put(friendId, name);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	void removeFriend(String friendId) {
+		lock.writeLock().lock();
+		try {
+			friendNames.remove(friendId);
+			for (int ord = 0; ord < nextOrd; ord++) {
+				Doc doc = docs[ord];
+				if (doc != null && doc.friendId.equals(friendId)) {
+					remove(ord);
+				}
+			}
+			if (nextOrd - liveCount >= COMPACT_MIN_DEAD && nextOrd - liveCount > liveCount) {
+				compact();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	int size() {
+		lock.readLock().lock();
+		try {
+			return liveCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Documents containing every query token (the last one as a prefix, for search-as-you-type),
+	 * best BM25 score first, newest first among equal scores.
+	 */
+	Result search(List<String> tokens, int offset, int limit) {
+		lock.readLock().lock();
+		try {
+			if (tokens.isEmpty() || liveCount == 0) {
+				return new Result(List.of(), false);
+			}
+
+			float averageLength = Math.max(1f, totalLength / (float) liveCount);
+			float[] scores = new float[nextOrd];
+			// matched[ord] == number of query tokens it matched so far; a document that missed one is out.
+			byte[] matched = new byte[nextOrd];
+			int required = 0;
+			for (int t = 0; t < tokens.size(); t++) {
+				String token = tokens.get(t);
+				boolean last = t == tokens.size() - 1;
+				List<Postings> lists = lookup(token, last);
+				if (lists.isEmpty()) {
+					// "parfum de" while typing: a trailing stop word that prefixes nothing is just ignored.
+					if (last && required > 0 && TextNormalizer.isStopWord(token)) {
+						break;
+					}
+					return new Result(List.of(), false);
+				}
+				for (Postings postings : lists) {
+					float idf = (float) Math.log(1 + (liveCount - postings.live + 0.5) / (postings.live + 0.5));
+					for (int i = 0; i < postings.size; i++) {
+						int ord = postings.ords[i];
+						Doc doc = docs[ord];
+						if (doc == null || matched[ord] < required) {
+							continue;
+						}
+						int tf = postings.freqs[i];
+						scores[ord] += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * doc.length / averageLength));
+						if (matched[ord] == required) {
+							matched[ord] = (byte) (required + 1);
+						}
+					}
+				}
+				required++;
+			}
+
+			// Bounded min-heap of ordinals: only the requested window (plus one to detect a next page) is
+			// ever kept, and no object is allocated for the documents that do not make it.
+			int keep = offset + limit + 1;
+			int[] heap = new int[Math.min(keep, liveCount)];
+			int heapSize = 0;
+			for (int ord = 0; ord < nextOrd; ord++) {
+				if (matched[ord] != required) {
+					continue;
+				}
+				if (heapSize < heap.length) {
+					heap[heapSize] = ord;
+					siftUp(heap, heapSize++, scores);
+				} else if (outranks(ord, heap[0], scores)) {
+					heap[0] = ord;
+					siftDown(heap, heapSize, scores);
+				}
+			}
+
+			// Drain worst first, filling the window from the back.
+			int[] ranked = new int[heapSize];
+			for (int i = heapSize - 1; i >= 0; i--) {
+				ranked[i] = heap[0];
+				heap[0] = heap[--heapSize];
+				siftDown(heap, heapSize, scores);
+			}
+			List<Hit> hits = new ArrayList<>(limit);
+			for (int i = offset; i < Math.min(ranked.length, offset + limit); i++) {
+				Doc doc = docs[ranked[i]];
+				hits.add(new Hit(doc, friendNames.get(doc.friendId), scores[ranked[i]]));
+			}
+			return new Result(hits, ranked.length > offset + limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Ranking order: higher score, then newer, then larger id (ids are unique, so this is total).
+	 */
+	private boolean outranks(int a, int b, float[] scores) {
+		if (scores[a] != scores[b]) {
+			return scores[a] > scores[b];
+		}
+		int byDate = docs[a].createdAt.compareTo(docs[b].createdAt);
+		if (byDate != 0) {
+			return byDate > 0;
+		}
+		return docs[a].id.compareTo(docs[b].id) > 0;
+	}
+
+	private void siftUp(int[] heap, int i, float[] scores) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!outranks(heap[parent], heap[i], scores)) {
+				return;
+			}
+			swap(heap, parent, i);
+			i = parent;
+		}
+	}
+
+	private void siftDown(int[] heap, int size, float[] scores) {
+		int i = 0;
+		while (true) {
+			int worst = i;
+			int left = 2 * i + 1;
+			int right = left + 1;
+			if (left < size && outranks(heap[worst], heap[left], scores)) {
+				worst = left;
+			}
+			if (right < size && outranks(heap[worst], heap[right], scores)) {
+				worst = right;
+			}
+			if (worst == i) {
+				return;
+			}
+			swap(heap, i, worst);
+			i = worst;
+		}
+	}
+
+	private static void swap(int[] heap, int a, int b) {
+		int tmp = heap[a];
+		heap[a] = heap[b];
+		heap[b] = tmp;
+	}
+
+	private List<Postings> lookup(String token, boolean prefix) {
+		if (!prefix) {
+			Postings postings = terms.get(token);
+			return postings == null ? List.of() : List.of(postings);
+		}
+		NavigableMap<String, Postings> range = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+		List<Postings> lists = new ArrayList<>(Math.min(range.size(), MAX_PREFIX_EXPANSIONS));
+		for (Postings postings : range.values()) {
+			if (lists.size() == MAX_PREFIX_EXPANSIONS) {
+				break;
+			}
+			lists.add(postings);
+		}
+		return lists;
+	}
+
+	private void insert(Doc doc) {
+		if (nextOrd == docs.length) {
+			docs = Arrays.copyOf(docs, docs.length * 2);
+		}
+		int ord = nextOrd++;
+		docs[ord] = doc;
+		ordById.put(doc.id, ord);
+		for (int i = 0; i < doc.terms.length; i++) {
+			terms.computeIfAbsent(doc.terms[i], k -> new Postings()).add(ord, doc.freqs[i]);
+		}
+		liveCount++;
+		totalLength += doc.length;
+	}
+
+	private void remove(int ord) {
+		Doc doc = docs[ord];
+		docs[ord] = null;
+		ordById.remove(doc.id);
+		for (String term : doc.terms) {
+			Postings postings = terms.get(term);
+			if (--postings.live == 0) {
+				terms.remove(term);
+			}
+		}
+		liveCount--;
+		totalLength -= doc.length;
+	}
+
+	private void compact() {
+		Doc[] live = new Doc[liveCount];
+		int n = 0;
+		for (int ord = 0; ord < nextOrd; ord++) {
+			if (docs[ord] != null) {
+				live[n++] = docs[ord];
+			}
+		}
+		terms.clear();
+		ordById.clear();
+		docs = new Doc[Math.max(16, Integer.highestOneBit(Math.max(1, n)) * 2)];
+		nextOrd = 0;
+		liveCount = 0;
+		totalLength = 0;
+		for (Doc doc : live) {
+			insert(doc);
+		}
+	}
+}
@@ -0,0 +1,334 @@
+package com.friendgift.search;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Prefix trie of gift phrases ranked by time-decayed frequency, each node keeping its best
+ * {@link #TOP_K} phrases so a lookup is a walk down the prefix plus a copy.
+ * <p>
+ * Scores live in the log domain relative to a fixed epoch: an occurrence at time {@code t} adds
+ * {@code exp(lambda * (t - epoch))}. Decaying every score by the same factor never changes the
+ * ranking, so nothing has to be rescaled as time passes and scores only ever grow.
+ * <p>
+ * A phrase is only suggested once {@code minOwners} different users wrote it (seed phrases are
+ * eligible straight away), so nobody's private idea text is shown to others. Until then it waits among
+ * at most {@code maxPending} pending phrases, outside the trie; past that the one written least recently
+ * is forgotten, and {@link #retract} forgets a writer whose ideas were purged. Eligible phrases are
+ * shared by several users by then and stay.
+ * <p>
+ * Nodes exist down to {@link #MAX_DEPTH} characters; the deepest nodes keep their best
+ * {@link #MAX_BUCKET} phrases, ranked, and longer prefixes are filtered from that bucket.
+ */
+final class SuggestionTrie {
+	static final int TOP_K = 20;
+	static final int MAX_DEPTH = 12;
+	static final int MAX_BUCKET = 256;
+	/** Longer texts are descriptions rather than reusable suggestions. */
+	static final int MAX_LENGTH = 80;
+
+	private static final String[] FOLD = new String[0x250];
+	private static final char[] NO_LABELS = new char[0];
+	private static final Node[] NO_CHILDREN = new Node[0];
+	private static final ThreadLocal<StringBuilder> PREFIX = ThreadLocal.withInitial(StringBuilder::new);
+
+	static {
+		for (char c = 0; c < FOLD.length; c++) {
+			FOLD[c] = TextNormalizer.fold(String.valueOf(c));
+		}
+	}
+
+	private static final class Entry {
+		final String key;
+		String display;
+		double logScore;
+		/** Distinct writers while the phrase is pending, then null. */
+		Set<String> owners = new HashSet<>();
+
+		Entry(String key, String display, double logScore) {
+			this.key = key;
+			this.display = display;
+			this.logScore = logScore;
+		}
+
+		boolean outranks(Entry other) {
+			return logScore != other.logScore ? logScore > other.logScore : key.compareTo(other.key) < 0;
+		}
+	}
+
+	/** The best entries offered so far, best first, at most {@code capacity} of them. */
+	private static final class Ranking {
+		final int capacity;
+		Entry[] entries = new Entry[4];
+		int size;
+
+		Ranking(int capacity) {
+			this.capacity = capacity;
+		}
+
+		/**
+		 * Scores only grow, so an entry already present just moves up; otherwise it takes a free slot or
+		 * replaces the last one if it outranks it.
+		 */
+		void offer(Entry entry) {
+			int at = indexOf(entry);
+			if (at < 0) {
+				if (size < capacity) {
+					if (size == entries.length) {
+						entries = Arrays.copyOf(entries, Math.min(capacity, size * 2));
+					}
+					at = size++;
+				} else if (entry.outranks(entries[capacity - 1])) {
+					at = capacity - 1;
+				} else {
+					return;
+				}
+				entries[at] = entry;
+			}
+			while (at > 0 && entries[at].outranks(entries[at - 1])) {
+				Entry tmp = entries[at - 1];
+				entries[at - 1] = entries[at];
+				entries[at] = tmp;
+				at--;
+			}
+		}
+
+		private int indexOf(Entry entry) {
+			for (int i = 0; i < size; i++) {
+				if (entries[i] == entry) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	private static final class Node {
+		char[] labels = NO_LABELS;
+		Node[] children = NO_CHILDREN;
+		int childCount;
+		final Ranking top = new Ranking(TOP_K);
+		/** Only at {@link #MAX_DEPTH}: the best phrases below this node. */
+		Ranking bucket;
+
+		Node child(char label) {
+			int i = Arrays.binarySearch(labels, 0, childCount, label);
+			return i >= 0 ? children[i] : null;
+		}
+
+		Node childOrCreate(char label) {
+			int i = Arrays.binarySearch(labels, 0, childCount, label);
+			if (i >= 0) {
+				return children[i];
+			}
+			int at = -i - 1;
+			if (childCount == labels.length) {
+				labels = Arrays.copyOf(labels, Math.max(2, childCount * 2));
+				children = Arrays.copyOf(children, labels.length);
+			}
+			System.arraycopy(labels, at, labels, at + 1, childCount - at);
+			System.arraycopy(children, at, children, at + 1, childCount - at);
+			Node node = new Node();
+			labels[at] = label;
+			children[at] = node;
+			childCount++;
+			return node;
+		}
+	}
+
+	private final StampedLock lock = new StampedLock();
+	private final Node root = new Node();
+	/** Eligible phrases, all in the trie. */
+	private final Map<String, Entry> entries = new HashMap<>();
+	/** Phrases not written by enough users yet, least recently written first. */
+	private final Map<String, Entry> pending;
+	private final int minOwners;
+	private final double lambdaPerSecond;
+	private final long epochSecond;
+
+	SuggestionTrie(int minOwners, int maxPending, Duration halfLife, Instant epoch) {
+		this.minOwners = minOwners;
+		this.pending = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxPending;
+			}
+		};
+		this.lambdaPerSecond = Math.log(2) / halfLife.toSeconds();
+		this.epochSecond = epoch.getEpochSecond();
+	}
+
+	/**
+	 * Records one occurrence of {@code text}; a null owner marks a seed phrase.
+	 */
+	void add(String text, String owner, Instant at) {
+		String key = normalize(text);
+		if (key.isEmpty() || key.length() > MAX_LENGTH) {
+			return;
+		}
+		double weight = lambdaPerSecond * (at.getEpochSecond() - epochSecond);
+		String display = text.trim().replaceAll("\\s+", " ");
+
+		long stamp = lock.writeLock();
+		try {
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				entry = pending.get(key);
+			}
+			if (entry == null) {
+				entry = new Entry(key, display, weight);
+			} else {
+				double max = Math.max(entry.logScore, weight);
+				entry.logScore = max + Math.log1p(Math.exp(Math.min(entry.logScore, weight) - max));
+				entry.display = display;
+			}
+
+			if (entry.owners != null) {
+				if (owner != null) {
+					entry.owners.add(owner);
+				}
+				if (owner != null && entry.owners.size() < minOwners) {
+					pending.put(key, entry);
+					return;
+				}
+				entry.owners = null;
+				pending.remove(key);
+				entries.put(key, entry);
+			}
+			offerAlongPath(entry);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Forgets that {@code owner} wrote {@code text}, if the phrase is still pending. The owner may have
+	 * written it elsewhere too; counting one writer less only delays the phrase.
+	 */
+	void retract(String text, String owner) {
+		String key = normalize(text);
+		long stamp = lock.writeLock();
+		try {
+			Entry entry = pending.get(key);
+			if (entry != null && entry.owners.remove(owner) && entry.owners.isEmpty()) {
+				pending.remove(key);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Appends up to {@code limit} suggestions for {@code prefix} to {@code out}, best first. Allocation
+	 * free: the prefix is folded into a per-thread buffer and only existing strings are added.
+	 */
+	void suggest(String prefix, int limit, List<String> out) {
+		StringBuilder folded = PREFIX.get();
+		folded.setLength(0);
+		normalizeInto(prefix, folded, true);
+
+		long stamp = lock.readLock();
+		try {
+			Node node = root;
+			int depth = Math.min(folded.length(), MAX_DEPTH);
+			for (int i = 0; i < depth && node != null; i++) {
+				node = node.child(folded.charAt(i));
+			}
+			if (node == null) {
+				return;
+			}
+			if (folded.length() <= MAX_DEPTH) {
+				for (int i = 0; i < node.top.size && out.size() < limit; i++) {
+					out.add(node.top.entries[i].display);
+				}
+				return;
+			}
+			for (int i = 0; i < node.bucket.size && out.size() < limit; i++) {
+				Entry entry = node.bucket.entries[i];
+				if (startsWith(entry.key, folded)) {
+					out.add(entry.display);
+				}
+			}
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	int size() {
+		long stamp = lock.readLock();
+		try {
+			return entries.size() + pending.size();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	static String normalize(String text) {
+		StringBuilder out = new StringBuilder(text.length());
+		normalizeInto(text, out, false);
+		return out.toString();
+	}
+
+	/**
+	 * Lower case, accents folded, runs of whitespace collapsed to one space, leading whitespace dropped.
+	 * A trailing space is kept only for prefixes ("livre " must not match "livres").
+	 */
+	private static void normalizeInto(CharSequence text, StringBuilder out, boolean keepTrailingSpace) {
+		boolean pendingSpace = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isWhitespace(c)) {
+				pendingSpace = out.length() > 0;
+				continue;
+			}
+			if (pendingSpace) {
+				out.append(' ');
+				pendingSpace = false;
+			}
+			if (c < FOLD.length) {
+				out.append(FOLD[c]);
+			} else {
+				out.append(Character.toLowerCase(c));
+			}
+		}
+		if (pendingSpace && keepTrailingSpace) {
+			out.append(' ');
+		}
+	}
+
+	private static boolean startsWith(String key, CharSequence prefix) {
+		if (key.length() < prefix.length()) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (key.charAt(i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void offerAlongPath(Entry entry) {
+		Node node = root;
+		node.top.offer(entry);
+		int depth = Math.min(entry.key.length(), MAX_DEPTH);
+		for (int i = 0; i < depth; i++) {
+			node = node.childOrCreate(entry.key.charAt(i));
+			node.top.offer(entry);
+		}
+		if (depth == MAX_DEPTH) {
+			if (node.bucket == null) {
+				node.bucket = new Ranking(MAX_BUCKET);
+			}
+			node.bucket.offer(entry);
+		}
+	}
+}
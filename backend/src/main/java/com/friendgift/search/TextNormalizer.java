@@ -0,0 +1,86 @@
+package com.friendgift.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: lower case, accents folded ("connectée" becomes "connectee"),
+ * split on anything that is not a letter or digit, and a light French plural folding (trailing
+ * {@code s}/{@code x} dropped from longer words) so "montres" finds "montre".
+ */
+public final class TextNormalizer {
+	/** Frequent French function words: not indexed, since they match nearly every idea. */
+	private static final Set<String> STOP_WORDS = Set.of(
+			"a", "au", "aux", "d", "de", "des", "du", "en", "et", "l", "la", "le", "les", "ou", "pour", "un", "une");
+
+	private TextNormalizer() {
+	}
+
+	public static boolean isStopWord(String token) {
+		return STOP_WORDS.contains(token);
+	}
+
+	public static String fold(String text) {
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		StringBuilder folded = new StringBuilder(decomposed.length());
+		for (int i = 0; i < decomposed.length(); i++) {
+			char c = decomposed.charAt(i);
+			if (Character.getType(c) == Character.NON_SPACING_MARK) {
+				continue;
+			}
+			folded.append(switch (c) {
+				case '\u0153', '\u0152' -> "oe";
+				case '\u00e6', '\u00c6' -> "ae";
+				default -> String.valueOf(c);
+			});
+		}
+		return folded.toString().toLowerCase(Locale.ROOT);
+	}
+
+	public static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+		String folded = fold(text);
+		int start = -1;
+		for (int i = 0; i <= folded.length(); i++) {
+			boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			} else if (!wordChar && start >= 0) {
+				tokens.add(stem(folded.substring(start, i)));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * Distinct query terms. Stop words are not indexed, so they are dropped, except as the last word:
+	 * that one is matched as a prefix ("de" still finds "dégustation").
+	 */
+	public static List<String> queryTokens(String query) {
+		List<String> tokens = tokenize(query);
+		List<String> kept = new ArrayList<>();
+		for (int i = 0; i < tokens.size(); i++) {
+			String token = tokens.get(i);
+			boolean last = i == tokens.size() - 1;
+			if ((last || !isStopWord(token)) && !kept.contains(token)) {
+				kept.add(token);
+			}
+		}
+		return kept;
+	}
+
+	private static String stem(String token) {
+		int last = token.length() - 1;
+		if (token.length() > 3 && (token.charAt(last) == 's' || token.charAt(last) == 'x')) {
+			return token.substring(0, last);
+		}
+		return token;
+	}
+}
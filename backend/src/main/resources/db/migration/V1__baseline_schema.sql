@@ -0,0 +1,31 @@
+-- Tables as previously generated by Hibernate; IF NOT EXISTS keeps baselined databases intact.
+CREATE TABLE IF NOT EXISTS app_user (
+    username VARCHAR(32) NOT NULL,
+    password VARCHAR(72) NOT NULL,
+    PRIMARY KEY (username)
+);
+
+CREATE TABLE IF NOT EXISTS friend (
+    id VARCHAR(36) NOT NULL,
+    owner_username VARCHAR(32) NOT NULL,
+    name VARCHAR(80) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_friend_owner FOREIGN KEY (owner_username) REFERENCES app_user (username)
+);
+
+CREATE TABLE IF NOT EXISTS gift_idea (
+    id VARCHAR(36) NOT NULL,
+    friend_id VARCHAR(36) NOT NULL,
+    text VARCHAR(400) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_gift_idea_friend FOREIGN KEY (friend_id) REFERENCES friend (id)
+);
+
+-- FriendRepository.listByOwnerUsername: owner_username = ? [seek on created_at, id] ORDER BY created_at, id
+-- FriendRepository.findByOwnerAndId is served by the primary key.
+CREATE INDEX IF NOT EXISTS ix_friend_owner_created ON friend (owner_username, created_at, id);
+
+-- GiftIdeaRepository.listByFriendIdNewestFirst: friend_id = ? [seek] ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS ix_gift_idea_friend_created ON gift_idea (friend_id, created_at DESC, id DESC);
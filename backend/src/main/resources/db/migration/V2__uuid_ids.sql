@@ -0,0 +1,38 @@
+-- Friend and idea ids become native 16-byte UUIDs instead of 36-character strings. Existing ids are
+-- random UUIDs and keep their value (and so their text form in the API); new rows get time-ordered
+-- version 7 ids (com.friendgift.data.Ids). The tables are rebuilt rather than altered in place so the
+-- primary keys and indexes are laid out afresh from the converted keys.
+CREATE TABLE friend_uuid (
+    id UUID NOT NULL,
+    owner_username VARCHAR(32) NOT NULL,
+    name VARCHAR(80) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE gift_idea_uuid (
+    id UUID NOT NULL,
+    friend_id UUID NOT NULL,
+    text VARCHAR(400) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO friend_uuid (id, owner_username, name, created_at)
+SELECT CAST(id AS UUID), owner_username, name, created_at FROM friend;
+
+INSERT INTO gift_idea_uuid (id, friend_id, text, created_at)
+SELECT CAST(id AS UUID), CAST(friend_id AS UUID), text, created_at FROM gift_idea;
+
+DROP TABLE gift_idea;
+DROP TABLE friend;
+
+ALTER TABLE friend_uuid RENAME TO friend;
+ALTER TABLE gift_idea_uuid RENAME TO gift_idea;
+
+ALTER TABLE friend ADD CONSTRAINT fk_friend_owner FOREIGN KEY (owner_username) REFERENCES app_user (username);
+ALTER TABLE gift_idea ADD CONSTRAINT fk_gift_idea_friend FOREIGN KEY (friend_id) REFERENCES friend (id);
+
+-- Same access paths as in V1.
+CREATE INDEX ix_friend_owner_created ON friend (owner_username, created_at, id);
+CREATE INDEX ix_gift_idea_friend_created ON gift_idea (friend_id, created_at DESC, id DESC);
@@ -0,0 +1,16 @@
+-- Per-user change sequence behind GET /api/sync (com.friendgift.data.DeltaSync). Every write bumps
+-- app_user.change_seq and appends one change_log row per created, renamed or deleted friend and per
+-- created idea, in the writing transaction. The rows of deleted friends are their tombstones, so
+-- change_log deliberately has no foreign key to friend.
+ALTER TABLE app_user ADD COLUMN change_seq BIGINT DEFAULT 0 NOT NULL;
+
+-- ChangeLogRepository.listBetween: owner_username = ? AND seq > ? AND seq <= ? ORDER BY seq, a primary key range.
+CREATE TABLE change_log (
+    owner_username VARCHAR(32) NOT NULL,
+    seq BIGINT NOT NULL,
+    kind VARCHAR(16) NOT NULL,
+    friend_id UUID NOT NULL,
+    idea_id UUID,
+    PRIMARY KEY (owner_username, seq),
+    CONSTRAINT fk_change_log_owner FOREIGN KEY (owner_username) REFERENCES app_user (username)
+);
@@ -0,0 +1,7 @@
+-- Soft delete: DELETE /api/friends/{id} only sets deleted_at, and every friend query filters on
+-- deleted_at IS NULL. com.friendgift.data.FriendPurge then removes the friend's ideas in bounded chunks
+-- and finally the friend row; flagged rows are what it resumes from after a restart.
+ALTER TABLE friend ADD COLUMN deleted_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- FriendRepository.findNextDeleted: deleted_at IS NOT NULL ORDER BY deleted_at LIMIT 1
+CREATE INDEX ix_friend_deleted ON friend (deleted_at);
@@ -0,0 +1,3 @@
+-- MinHash signature of each idea's text (com.friendgift.search.IdeaSignature), read back to build the
+-- per-friend near-duplicate index. Existing rows stay NULL and get theirs computed when loaded.
+ALTER TABLE gift_idea ADD COLUMN signature VARBINARY(64);
@@ -0,0 +1,14 @@
+-- Token revocation (com.friendgift.auth.TokenRevocations): single tokens by jti on logout, and every
+-- token of a user issued up to app_user.revoked_before. Rows only matter until the token would have
+-- expired anyway, after which they are pruned.
+CREATE TABLE revoked_token (
+    jti VARCHAR(36) NOT NULL,
+    username VARCHAR(32) NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (jti)
+);
+
+-- RevokedTokenRepository.listUnexpired / deleteExpired: expires_at range
+CREATE INDEX ix_revoked_token_expires ON revoked_token (expires_at);
+
+ALTER TABLE app_user ADD COLUMN revoked_before TIMESTAMP(6) WITH TIME ZONE;
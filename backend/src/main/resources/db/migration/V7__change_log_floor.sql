@@ -0,0 +1,4 @@
+-- change_log retention (com.friendgift.data.ChangeLog): the oldest entries of each user are deleted as
+-- new ones arrive, and app_user.change_log_floor records the last sequence number deleted. A sync token
+-- below it can no longer be answered from the log and gets the whole account instead.
+ALTER TABLE app_user ADD COLUMN change_log_floor BIGINT DEFAULT 0 NOT NULL;
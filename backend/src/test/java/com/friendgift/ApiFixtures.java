@@ -0,0 +1,84 @@
+package com.friendgift;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Accounts and friends created through the API for tests that need data of their own. Usernames get a
+ * random suffix after the caller's prefix, so tests sharing the database never collide.
+ */
+public final class ApiFixtures {
+	public static final String PASSWORD = "password123";
+
+	private ApiFixtures() {
+	}
+
+	public static String newUsername(String prefix) {
+		return prefix + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+	}
+
+	/**
+	 * Registers a fresh account and returns its token.
+	 */
+	public static String register(String prefix) {
+		return registerAs(newUsername(prefix));
+	}
+
+	public static String registerAs(String username) {
+		return given()
+				.contentType(ContentType.JSON)
+				.body("{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}")
+				.when()
+				.post("/api/auth/register")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("token");
+	}
+
+	public static String login(String username) {
+		return given()
+				.contentType(ContentType.JSON)
+				.body("{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}")
+				.when()
+				.post("/api/auth/login")
+				.then()
+				.statusCode(200)
+				.extract()
+				.path("token");
+	}
+
+	public static RequestSpecification authorized(String token) {
+		return given().header("Authorization", "Bearer " + token).when();
+	}
+
+	/**
+	 * Creates a friend and returns its id.
+	 */
+	public static String createFriend(String token, String name) {
+		return authorized(token)
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"" + name + "\"}")
+				.post("/api/friends")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id");
+	}
+
+	/**
+	 * {@code GET /api/sync}, from the start or {@code since} a previous cursor; expects 200.
+	 */
+	public static ValidatableResponse sync(String token, String since) {
+		RequestSpecification request = authorized(token);
+		if (since != null) {
+			request.queryParam("since", since);
+		}
+		return request.get("/api/sync").then().statusCode(200);
+	}
+}
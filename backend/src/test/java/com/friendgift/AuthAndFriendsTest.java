@@ -9,6 +9,8 @@ import java.util.UUID;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 @QuarkusTestResource(JwtTestKeysResource.class)
@@ -26,6 +28,19 @@ public class AuthAndFriendsTest {
 				.path("token");
 	}
 
+	private String registerToken() {
+		String username = "user_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+		return given()
+				.contentType(ContentType.JSON)
+				.body("{\"username\":\"" + username + "\",\"password\":\"password123\"}")
+				.when()
+				.post("/api/auth/register")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("token");
+	}
+
 	@Test
 	void login_then_list_friends() {
 		String token = loginToken();
@@ -91,6 +106,449 @@ public class AuthAndFriendsTest {
 				.body("id", not(hasItem(friendId)));
 	}
 
+	@Test
+	void paginate_friends_with_cursor() {
+		String token = registerToken();
+		for (String name : new String[] {"Ana", "Ben", "Cleo"}) {
+			given()
+					.header("Authorization", "Bearer " + token)
+					.contentType(ContentType.JSON)
+					.body("{\"name\":\"" + name + "\"}")
+					.when()
+					.post("/api/friends")
+					.then()
+					.statusCode(201);
+		}
+
+		String next = given()
+				.header("Authorization", "Bearer " + token)
+				.queryParam("limit", 2)
+				.when()
+				.get("/api/friends")
+				.then()
+				.statusCode(200)
+				.body("name", contains("Ana", "Ben"))
+				.header("X-Next-Cursor", notNullValue())
+				.extract()
+				.header("X-Next-Cursor");
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.queryParam("limit", 2)
+				.queryParam("cursor", next)
+				.when()
+				.get("/api/friends")
+				.then()
+				.statusCode(200)
+				.body("name", contains("Cleo"))
+				.header("X-Next-Cursor", nullValue());
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.queryParam("cursor", "not-a-cursor")
+				.when()
+				.get("/api/friends")
+				.then()
+				.statusCode(400);
+	}
+
+	@Test
+	void unchanged_friends_list_is_not_modified() {
+		String token = registerToken();
+
+		String etag = given()
+				.header("Authorization", "Bearer " + token)
+				.when()
+				.get("/api/friends")
+				.then()
+				.statusCode(200)
+				.header("ETag", startsWith("W/"))
+				.extract()
+				.header("ETag");
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.header("If-None-Match", etag)
+				.when()
+				.get("/api/friends")
+				.then()
+				.statusCode(304);
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Dana\"}")
+				.when()
+				.post("/api/friends")
+				.then()
+				.statusCode(201);
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.header("If-None-Match", etag)
+				.when()
+				.get("/api/friends")
+				.then()
+				.statusCode(200)
+				.header("ETag", not(equalTo(etag)))
+				.body("name", hasItem("Dana"));
+	}
+
+	@Test
+	void ideas_list_tag_follows_changes_whatever_the_id_case() {
+		String token = registerToken();
+		String friendId = given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Gil\"}")
+				.when()
+				.post("/api/friends")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id");
+		String upper = friendId.toUpperCase();
+
+		String etag = given()
+				.header("Authorization", "Bearer " + token)
+				.when()
+				.get("/api/friends/" + upper + "/ideas")
+				.then()
+				.statusCode(200)
+				.header("ETag", startsWith("W/"))
+				.extract()
+				.header("ETag");
+		given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("{\"text\":\"Puzzle\"}")
+				.when()
+				.post("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(201);
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.header("If-None-Match", etag)
+				.when()
+				.get("/api/friends/" + upper + "/ideas")
+				.then()
+				.statusCode(200)
+				.body("text", contains("Puzzle"));
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.when()
+				.get("/api/friends/not-an-id/ideas")
+				.then()
+				.statusCode(200)
+				.header("ETag", nullValue());
+	}
+
+	@Test
+	void overview_counts_ideas_and_shows_latest() {
+		String token = registerToken();
+		String[] ids = new String[2];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = given()
+					.header("Authorization", "Bearer " + token)
+					.contentType(ContentType.JSON)
+					.body("{\"name\":\"" + (i == 0 ? "Eli" : "Fay") + "\"}")
+					.when()
+					.post("/api/friends")
+					.then()
+					.statusCode(201)
+					.extract()
+					.path("id");
+		}
+		for (String text : new String[] {"Livre", "Plante"}) {
+			given()
+					.header("Authorization", "Bearer " + token)
+					.contentType(ContentType.JSON)
+					.body("{\"text\":\"" + text + "\"}")
+					.when()
+					.post("/api/friends/" + ids[0] + "/ideas")
+					.then()
+					.statusCode(201);
+		}
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.when()
+				.get("/api/friends/overview")
+				.then()
+				.statusCode(200)
+				.header("ETag", startsWith("W/"))
+				.body("name", contains("Eli", "Fay"))
+				.body("ideaCount", contains(2, 0))
+				.body("latestIdea", contains("Plante", null));
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.when()
+				.get("/api/friends/" + ids[0])
+				.then()
+				.statusCode(200)
+				.body("name", equalTo("Eli"))
+				.body("ideaCount", equalTo(2))
+				.body("latestIdea", equalTo("Plante"));
+
+		given()
+				.header("Authorization", "Bearer " + loginToken())
+				.when()
+				.get("/api/friends/" + ids[0])
+				.then()
+				.statusCode(404);
+	}
+
+	@Test
+	void export_then_import_into_another_account() {
+		String token = registerToken();
+		String eli = given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("[{\"name\":\"Eli\"},{\"name\":\"Fay\"}]")
+				.when()
+				.post("/api/friends:batch")
+				.then()
+				.statusCode(200)
+				.extract()
+				.path("[0].value.id");
+		given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("[{\"text\":\"Livre\"},{\"text\":\"Plante\"}]")
+				.when()
+				.post("/api/friends/" + eli + "/ideas:batch")
+				.then()
+				.statusCode(200);
+
+		String export = given()
+				.header("Authorization", "Bearer " + token)
+				.when()
+				.get("/api/export")
+				.then()
+				.statusCode(200)
+				.contentType(startsWith("application/x-ndjson"))
+				.extract()
+				.asString();
+		String[] lines = export.strip().split("\n");
+		assertEquals(4, lines.length);
+		assertTrue(lines[0].contains("\"type\":\"friend\"") && lines[0].contains("Eli"));
+
+		String other = registerToken();
+		given()
+				.header("Authorization", "Bearer " + other)
+				.contentType("application/x-ndjson")
+				.body(export)
+				.when()
+				.post("/api/import")
+				.then()
+				.statusCode(200)
+				.body("friends", equalTo(2))
+				.body("ideas", equalTo(2))
+				.body("skipped", equalTo(0));
+		given()
+				.header("Authorization", "Bearer " + other)
+				.when()
+				.get("/api/friends/overview")
+				.then()
+				.statusCode(200)
+				.body("name", contains("Eli", "Fay"))
+				.body("ideaCount", contains(2, 0))
+				.body("latestIdea", contains("Plante", null));
+
+		given()
+				.header("Authorization", "Bearer " + registerToken())
+				.contentType("application/x-ndjson")
+				.body(lines[0] + "\n{\"type\":\"idea\",\"friendId\":\"nope\",\"text\":\"x\"}\n{oops\n")
+				.when()
+				.post("/api/import")
+				.then()
+				.statusCode(400)
+				.body("friends", equalTo(1))
+				.body("skipped", equalTo(1))
+				.body("failedAtLine", equalTo(3));
+	}
+
+	@Test
+	void search_ideas_across_friends() {
+		String token = registerToken();
+		String friendId = given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Gaby\"}")
+				.when()
+				.post("/api/friends")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id");
+		given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("[{\"text\":\"Montre connectée\"},{\"text\":\"Montre de plongée\"},{\"text\":\"Livre\"}]")
+				.when()
+				.post("/api/friends/" + friendId + "/ideas:batch")
+				.then()
+				.statusCode(200);
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.queryParam("q", "CONNECTEE")
+				.when()
+				.get("/api/ideas/search")
+				.then()
+				.statusCode(200)
+				.body("text", contains("Montre connectée"))
+				.body("[0].friendName", equalTo("Gaby"));
+
+		// The index is loaded now; later writes are applied to it incrementally.
+		given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("{\"text\":\"Montre à gousset\"}")
+				.when()
+				.post("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(201);
+
+		String next = given()
+				.header("Authorization", "Bearer " + token)
+				.queryParam("q", "montres")
+				.queryParam("limit", 2)
+				.when()
+				.get("/api/ideas/search")
+				.then()
+				.statusCode(200)
+				.body("size()", equalTo(2))
+				.header("X-Next-Cursor", notNullValue())
+				.extract()
+				.header("X-Next-Cursor");
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.queryParam("q", "montres")
+				.queryParam("limit", 2)
+				.queryParam("cursor", next)
+				.when()
+				.get("/api/ideas/search")
+				.then()
+				.statusCode(200)
+				.body("size()", equalTo(1))
+				.header("X-Next-Cursor", nullValue());
+
+		// Other users' ideas are never visible.
+		given()
+				.header("Authorization", "Bearer " + loginToken())
+				.queryParam("q", "gousset")
+				.when()
+				.get("/api/ideas/search")
+				.then()
+				.statusCode(200)
+				.body("size()", equalTo(0));
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.queryParam("q", "  ")
+				.when()
+				.get("/api/ideas/search")
+				.then()
+				.statusCode(400);
+	}
+
+	@Test
+	void suggestions_learn_phrases_written_by_several_users() {
+		String phrase = "Kit calligraphie " + UUID.randomUUID().toString().substring(0, 8);
+		for (String token : new String[] {registerToken(), registerToken()}) {
+			given()
+					.header("Authorization", "Bearer " + token)
+					.queryParam("prefix", "KIT CALLIGRAPHIE")
+					.when()
+					.get("/api/suggestions")
+					.then()
+					.statusCode(200)
+					.body("$", not(hasItem(phrase)));
+
+			String friendId = given()
+					.header("Authorization", "Bearer " + token)
+					.contentType(ContentType.JSON)
+					.body("{\"name\":\"Hugo\"}")
+					.when()
+					.post("/api/friends")
+					.then()
+					.statusCode(201)
+					.extract()
+					.path("id");
+			given()
+					.header("Authorization", "Bearer " + token)
+					.contentType(ContentType.JSON)
+					.body("{\"text\":\"" + phrase + "\"}")
+					.when()
+					.post("/api/friends/" + friendId + "/ideas")
+					.then()
+					.statusCode(201);
+		}
+
+		given()
+				.header("Authorization", "Bearer " + loginToken())
+				.queryParam("prefix", "kit calligraphie")
+				.queryParam("limit", 20)
+				.when()
+				.get("/api/suggestions")
+				.then()
+				.statusCode(200)
+				.body("$", hasItem(phrase));
+
+		given()
+				.header("Authorization", "Bearer " + loginToken())
+				.queryParam("prefix", "livre a")
+				.when()
+				.get("/api/suggestions")
+				.then()
+				.statusCode(200)
+				.body("$", hasItem("Livre audio (abonnement 1 mois)"));
+	}
+
+	@Test
+	void ideas_of_someone_elses_friend_are_not_listed() {
+		String owner = registerToken();
+		String friendId = given()
+				.header("Authorization", "Bearer " + owner)
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Inès\"}")
+				.when()
+				.post("/api/friends")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id");
+		given()
+				.header("Authorization", "Bearer " + owner)
+				.contentType(ContentType.JSON)
+				.body("{\"text\":\"Carnet de voyage\"}")
+				.when()
+				.post("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(201);
+
+		given()
+				.header("Authorization", "Bearer " + owner)
+				.when()
+				.get("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(200)
+				.body("size()", equalTo(1))
+				.body("[0].text", equalTo("Carnet de voyage"));
+		given()
+				.header("Authorization", "Bearer " + registerToken())
+				.when()
+				.get("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(200)
+				.body("size()", equalTo(0));
+	}
+
 	@Test
 	void register_then_access_protected_resources() {
 		String username = "user_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
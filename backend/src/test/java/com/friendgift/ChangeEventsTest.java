@@ -0,0 +1,81 @@
+package com.friendgift;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static com.friendgift.ApiFixtures.createFriend;
+import static com.friendgift.ApiFixtures.register;
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class ChangeEventsTest {
+	@TestHTTPResource("/api/events")
+	URI events;
+
+	@Test
+	void committed_changes_reach_the_owners_open_stream() throws Exception {
+		String token = register("ev_");
+		String other = register("ev_");
+
+		HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		HttpResponse<Stream<String>> response = http.send(HttpRequest.newBuilder(events)
+						.header("Authorization", "Bearer " + token)
+						.header("Accept", "text/event-stream")
+						.build(),
+				HttpResponse.BodyHandlers.ofLines());
+		assertEquals(200, response.statusCode());
+		BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+		Thread reader = new Thread(() -> response.body().forEach(lines::add), "sse-reader");
+		reader.setDaemon(true);
+		reader.start();
+		try {
+			awaitLine(lines, line -> line.startsWith("event:") && line.contains("ready"));
+
+			// Someone else's change must not show up in this stream.
+			createFriend(other, "Pas pour toi");
+			String friendId = createFriend(token, "Nadia");
+			String created = awaitLine(lines, line -> line.startsWith("data:") && line.contains("friend.created"));
+			assertTrue(created.contains(friendId) && created.contains("Nadia"), created);
+
+			given()
+					.header("Authorization", "Bearer " + token)
+					.delete("/api/friends/" + friendId)
+					.then()
+					.statusCode(204);
+			String deleted = awaitLine(lines, line -> line.startsWith("data:") && line.contains("friend.deleted"));
+			assertTrue(deleted.contains(friendId), deleted);
+		} finally {
+			response.body().close();
+		}
+	}
+
+	private static String awaitLine(BlockingQueue<String> lines, Predicate<String> match) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (System.nanoTime() < deadline) {
+			String line = lines.poll(100, TimeUnit.MILLISECONDS);
+			if (line != null) {
+				assertTrue(!line.contains("Pas pour toi"), "event of another user: " + line);
+				if (match.test(line)) {
+					return line;
+				}
+			}
+		}
+		throw new AssertionError("no matching event within " + Duration.ofSeconds(10));
+	}
+}
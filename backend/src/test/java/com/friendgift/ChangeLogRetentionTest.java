@@ -0,0 +1,59 @@
+package com.friendgift;
+
+import com.friendgift.data.ChangeLogRepository;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.friendgift.ApiFixtures.createFriend;
+import static com.friendgift.ApiFixtures.newUsername;
+import static com.friendgift.ApiFixtures.registerAs;
+import static com.friendgift.ApiFixtures.sync;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * With 5 retained changes, the 10th write of a user prunes the entries up to 5.
+ */
+@QuarkusTest
+@TestProfile(ChangeLogRetentionTest.Profile.class)
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class ChangeLogRetentionTest {
+	public static class Profile implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of("friendgift.sync.retained-changes", "5");
+		}
+	}
+
+	@Inject
+	ChangeLogRepository changeLogRepository;
+
+	@Test
+	void tokens_older_than_the_retained_changes_get_a_snapshot() {
+		String username = newUsername("rt_");
+		String token = registerAs(username);
+		String start = sync(token, null).extract().path("token");
+		String afterSeven = null;
+		for (int i = 1; i <= 12; i++) {
+			createFriend(token, "Ami " + i);
+			if (i == 7) {
+				afterSeven = sync(token, null).extract().path("token");
+			}
+		}
+
+		assertEquals(7, changeLogRepository.count("ownerUsername", username));
+		sync(token, start)
+				.body("full", equalTo(true))
+				.body("friends", hasSize(12));
+		sync(token, afterSeven)
+				.body("full", equalTo(false))
+				.body("friends", hasSize(5));
+	}
+}
@@ -0,0 +1,97 @@
+package com.friendgift;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static com.friendgift.ApiFixtures.createFriend;
+import static com.friendgift.ApiFixtures.register;
+import static com.friendgift.ApiFixtures.sync;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+@QuarkusTest
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class DeltaSyncTest {
+	@Test
+	void sync_returns_only_what_changed_since_the_token() {
+		String token = register("sy_");
+		String other = register("sy_");
+
+		String start = sync(token, null)
+				.body("full", equalTo(true))
+				.body("friends", empty())
+				.extract()
+				.path("token");
+
+		String nadia = createFriend(token, "Nadia");
+		String omar = createFriend(token, "Omar");
+		String ideaId = given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("{\"text\":\"Livre\"}")
+				.post("/api/friends/" + nadia + "/ideas")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id");
+		given()
+				.header("Authorization", "Bearer " + token)
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Omar B.\"}")
+				.put("/api/friends/" + omar)
+				.then()
+				.statusCode(200);
+		createFriend(other, "Pas pour toi");
+
+		String afterWrites = sync(token, start)
+				.body("full", equalTo(false))
+				.body("friends.id", containsInAnyOrder(nadia, omar))
+				.body("friends.name", containsInAnyOrder("Nadia", "Omar B."))
+				.body("ideas.id", contains(ideaId))
+				.body("ideas[0].friendId", equalTo(nadia))
+				.body("deletedFriends", empty())
+				.extract()
+				.path("token");
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.delete("/api/friends/" + omar)
+				.then()
+				.statusCode(204);
+
+		String afterDelete = sync(token, afterWrites)
+				.body("full", equalTo(false))
+				.body("friends", empty())
+				.body("ideas", empty())
+				.body("deletedFriends", contains(omar))
+				.extract()
+				.path("token");
+
+		sync(token, afterDelete)
+				.body("full", equalTo(false))
+				.body("friends", empty())
+				.body("ideas", empty())
+				.body("deletedFriends", empty())
+				.body("token", equalTo(afterDelete));
+
+		sync(token, null)
+				.body("full", equalTo(true))
+				.body("friends.id", contains(nadia))
+				.body("ideas.id", contains(ideaId));
+	}
+
+	@Test
+	void unknown_token_is_rejected() {
+		given()
+				.header("Authorization", "Bearer " + register("sy_"))
+				.queryParam("since", "not-a-token")
+				.get("/api/sync")
+				.then()
+				.statusCode(400);
+	}
+}
@@ -0,0 +1,82 @@
+package com.friendgift;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.friendgift.ApiFixtures.authorized;
+import static com.friendgift.ApiFixtures.createFriend;
+import static com.friendgift.ApiFixtures.register;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Reject mode: a near-identical idea for the same friend is refused with the existing idea, alone (409)
+ * or as a CONFLICT item of a batch; the rest of the batch, and other writes, go through.
+ */
+@QuarkusTest
+@TestProfile(DuplicateIdeasRejectTest.Profile.class)
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class DuplicateIdeasRejectTest {
+	public static class Profile implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of("friendgift.ideas.duplicates.mode", "reject");
+		}
+	}
+
+	@Test
+	void near_identical_ideas_are_rejected_with_the_existing_one() {
+		String token = register("dr_");
+		String nadia = createFriend(token, "Nadia");
+
+		String original = postIdea(token, nadia, "Montre connectée")
+				.then()
+				.statusCode(201)
+				.body("duplicateOf", nullValue())
+				.extract()
+				.path("id");
+		postIdea(token, nadia, "montre connectee !")
+				.then()
+				.statusCode(409)
+				.body("id", equalTo(original))
+				.body("text", equalTo("Montre connectée"));
+
+		authorized(token)
+				.contentType(ContentType.JSON)
+				.body("[{\"text\":\"Montre connectee\"},{\"text\":\"Puzzle 1000 pièces\"}]")
+				.post("/api/friends/" + nadia + "/ideas:batch")
+				.then()
+				.statusCode(200)
+				.body("[0].status", equalTo("CONFLICT"))
+				.body("[0].value.id", equalTo(original))
+				.body("[1].status", equalTo("OK"));
+
+		// Renaming the friend never conflicts.
+		authorized(token)
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Nadia B.\"}")
+				.put("/api/friends/" + nadia)
+				.then()
+				.statusCode(200);
+
+		authorized(token)
+				.get("/api/friends/" + nadia + "/ideas")
+				.then()
+				.statusCode(200)
+				.body("text", containsInAnyOrder("Montre connectée", "Puzzle 1000 pièces"));
+	}
+
+	private static io.restassured.response.Response postIdea(String token, String friendId, String text) {
+		return authorized(token)
+				.contentType(ContentType.JSON)
+				.body("{\"text\":\"" + text + "\"}")
+				.post("/api/friends/" + friendId + "/ideas");
+	}
+}
@@ -0,0 +1,48 @@
+package com.friendgift;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.Test;
+
+import static com.friendgift.ApiFixtures.authorized;
+import static com.friendgift.ApiFixtures.createFriend;
+import static com.friendgift.ApiFixtures.register;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Default mode: a near-identical idea for the same friend is created but flagged with {@code duplicateOf}.
+ */
+@QuarkusTest
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class DuplicateIdeasTest {
+	@Test
+	void near_identical_idea_for_the_same_friend_is_flagged() {
+		String token = register("du_");
+		String nadia = createFriend(token, "Nadia");
+		String omar = createFriend(token, "Omar");
+
+		String original = postIdea(token, nadia, "Montre connectée")
+				.body("duplicateOf", nullValue())
+				.extract()
+				.path("id");
+		postIdea(token, nadia, "montre connectee !")
+				.body("duplicateOf", equalTo(original));
+		postIdea(token, nadia, "Livre de cuisine")
+				.body("duplicateOf", nullValue());
+		// Another friend's ideas are not compared.
+		postIdea(token, omar, "Montre connectée")
+				.body("duplicateOf", nullValue());
+	}
+
+	private static ValidatableResponse postIdea(String token, String friendId, String text) {
+		return authorized(token)
+				.contentType(ContentType.JSON)
+				.body("{\"text\":\"" + text + "\"}")
+				.post("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(201);
+	}
+}
@@ -0,0 +1,95 @@
+package com.friendgift;
+
+import com.friendgift.data.FriendPurge;
+import com.friendgift.data.FriendRepository;
+import com.friendgift.data.GiftIdeaRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.friendgift.ApiFixtures.createFriend;
+import static com.friendgift.ApiFixtures.register;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deleting a friend with more ideas than one purge chunk: hidden at once, rows gone shortly after.
+ */
+@QuarkusTest
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class FriendPurgeTest {
+	private static final int BATCHES = 3;
+
+	@Inject
+	FriendPurge friendPurge;
+
+	@Inject
+	FriendRepository friendRepository;
+
+	@Inject
+	GiftIdeaRepository giftIdeaRepository;
+
+	@Test
+	void deleted_friend_is_hidden_at_once_and_purged_in_the_background() throws InterruptedException {
+		String token = register("pg_");
+		String friendId = createFriend(token, "Nadia");
+		String batch = "[" + "{\"text\":\"Idée\"},".repeat(199) + "{\"text\":\"Idée\"}]";
+		for (int i = 0; i < BATCHES; i++) {
+			given()
+					.header("Authorization", "Bearer " + token)
+					.contentType(ContentType.JSON)
+					.body(batch)
+					.post("/api/friends/" + friendId + "/ideas:batch")
+					.then()
+					.statusCode(200);
+		}
+		long purgedBefore = friendPurge.purgedIdeas();
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.delete("/api/friends/" + friendId)
+				.then()
+				.statusCode(204);
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.get("/api/friends")
+				.then()
+				.statusCode(200)
+				.body("id", not(hasItem(friendId)));
+		given()
+				.header("Authorization", "Bearer " + token)
+				.get("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(200)
+				.body("$", empty());
+		given()
+				.header("Authorization", "Bearer " + token)
+				.delete("/api/friends/" + friendId)
+				.then()
+				.statusCode(404);
+
+		UUID id = UUID.fromString(friendId);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+		while (friendRowExists(id) && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		assertTrue(!friendRowExists(id), "friend row still present");
+		assertEquals(0L, QuarkusTransaction.requiringNew().call(() -> giftIdeaRepository.count("friend.id", id)));
+		assertTrue(friendPurge.purgedIdeas() - purgedBefore >= BATCHES * 200L);
+	}
+
+	private boolean friendRowExists(UUID id) {
+		return QuarkusTransaction.requiringNew().call(() -> friendRepository.count("id", id) > 0);
+	}
+}
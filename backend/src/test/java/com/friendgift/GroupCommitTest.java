@@ -0,0 +1,91 @@
+package com.friendgift;
+
+import com.friendgift.data.IdeaGroupCommit;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.friendgift.ApiFixtures.authorized;
+import static com.friendgift.ApiFixtures.createFriend;
+import static com.friendgift.ApiFixtures.register;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent idea inserts through group commit: they share commits, yet each request still gets its own
+ * outcome (created, invalid, or not found for someone else's friend).
+ */
+@QuarkusTest
+@TestProfile(GroupCommitTest.Enabled.class)
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class GroupCommitTest {
+	private static final int REQUESTS = 20;
+
+	public static class Enabled implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of(
+					"friendgift.ideas.group-commit.enabled", "true",
+					"friendgift.ideas.group-commit.max-delay", "50ms");
+		}
+	}
+
+	@TestHTTPResource("/api/friends/")
+	URI friends;
+
+	@Inject
+	IdeaGroupCommit groupCommit;
+
+	@Test
+	void concurrent_inserts_share_commits_and_keep_their_own_outcome() {
+		String token = register("gc_");
+		String friendId = createFriend(token, "Nadia");
+		String foreignFriendId = createFriend(register("gc_"), "Pas le tien");
+		long commitsBefore = groupCommit.commits();
+
+		HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+		for (int i = 0; i < REQUESTS; i++) {
+			responses.add(post(http, token, friendId, "Idée " + i));
+		}
+		CompletableFuture<HttpResponse<String>> foreign = post(http, token, foreignFriendId, "Intrus");
+		CompletableFuture<HttpResponse<String>> blank = post(http, token, friendId, "   ");
+
+		for (CompletableFuture<HttpResponse<String>> response : responses) {
+			assertEquals(201, response.join().statusCode(), response.join().body());
+		}
+		assertEquals(404, foreign.join().statusCode());
+		assertEquals(400, blank.join().statusCode());
+		long commits = groupCommit.commits() - commitsBefore;
+		assertTrue(commits < REQUESTS, commits + " commits for " + REQUESTS + " inserts");
+
+		authorized(token)
+				.get("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(200)
+				.body("$", hasSize(REQUESTS));
+	}
+
+	private CompletableFuture<HttpResponse<String>> post(HttpClient http, String token, String friendId, String text) {
+		HttpRequest request = HttpRequest.newBuilder(friends.resolve(friendId + "/ideas"))
+				.header("Authorization", "Bearer " + token)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"text\":\"" + text + "\"}"))
+				.build();
+		return http.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,98 @@
+package com.friendgift;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.friendgift.ApiFixtures.authorized;
+import static com.friendgift.ApiFixtures.createFriend;
+import static com.friendgift.ApiFixtures.newUsername;
+import static com.friendgift.ApiFixtures.registerAs;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A group commit writer stalled past the request timeout: the caller whose insert it already took waits
+ * for the commit rather than getting a 503 for an idea that is then written anyway.
+ */
+@QuarkusTest
+@TestProfile(GroupCommitTimeoutTest.Profile.class)
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class GroupCommitTimeoutTest {
+	private static final long TIMEOUT_MS = 100;
+	private static final long STALL_MS = 400;
+
+	public static class Profile implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of(
+					"friendgift.ideas.group-commit.enabled", "true",
+					"friendgift.ideas.group-commit.max-delay", "1ms",
+					"friendgift.ideas.group-commit.timeout", TIMEOUT_MS + "ms");
+		}
+	}
+
+	@Inject
+	EntityManager em;
+
+	@Test
+	void an_insert_taken_by_a_stalled_writer_is_committed_once() throws InterruptedException {
+		String username = newUsername("gt_");
+		String token = registerAs(username);
+		String friendId = createFriend(token, "Nadia");
+
+		// The writer's change-log update needs this user's row; holding it stalls the batch mid-transaction.
+		CountDownLatch locked = new CountDownLatch(1);
+		CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> QuarkusTransaction.requiringNew().run(() -> {
+			em.createNativeQuery("update app_user set change_seq = change_seq where username = ?1")
+					.setParameter(1, username)
+					.executeUpdate();
+			locked.countDown();
+			try {
+				Thread.sleep(STALL_MS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+		long start = System.nanoTime();
+		int status = authorized(token)
+				.contentType(ContentType.JSON)
+				.body("{\"text\":\"Livre\"}")
+				.post("/api/friends/" + friendId + "/ideas")
+				.then()
+				.extract()
+				.statusCode();
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		holder.join();
+		if (status == 503) {
+			// What a client following Retry-After does.
+			authorized(token)
+					.contentType(ContentType.JSON)
+					.body("{\"text\":\"Livre\"}")
+					.post("/api/friends/" + friendId + "/ideas")
+					.then()
+					.statusCode(201);
+		}
+
+		authorized(token)
+				.get("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(200)
+				.body("$", hasSize(1));
+		assertTrue(status == 201, "status " + status + " after " + elapsedMs + " ms");
+		assertTrue(elapsedMs > TIMEOUT_MS, "the writer did not stall: " + elapsedMs + " ms");
+	}
+}
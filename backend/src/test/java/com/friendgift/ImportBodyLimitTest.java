@@ -0,0 +1,63 @@
+package com.friendgift;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.friendgift.ApiFixtures.authorized;
+import static com.friendgift.ApiFixtures.register;
+import static org.hamcrest.Matchers.equalTo;
+
+@QuarkusTest
+@TestProfile(ImportBodyLimitTest.Profile.class)
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class ImportBodyLimitTest {
+	public static class Profile implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of(
+					"quarkus.http.limits.max-body-size", "4K",
+					"friendgift.import.max-body-size", "64K");
+		}
+	}
+
+	private static String friendLines(int count) {
+		return "{\"type\":\"friend\",\"name\":\"Ami\"}\n".repeat(count);
+	}
+
+	@Test
+	void imports_may_exceed_the_global_limit() {
+		authorized(register("bl_"))
+				.contentType("application/x-ndjson")
+				.body(friendLines(200))
+				.post("/api/import")
+				.then()
+				.statusCode(200)
+				.body("friends", equalTo(200));
+	}
+
+	@Test
+	void imports_over_their_own_limit_are_rejected() {
+		authorized(register("bl_"))
+				.contentType("application/x-ndjson")
+				.body(friendLines(3000))
+				.post("/api/import")
+				.then()
+				.statusCode(413);
+	}
+
+	@Test
+	void other_routes_keep_the_global_limit() {
+		authorized(register("bl_"))
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"" + "a".repeat(8 * 1024) + "\"}")
+				.post("/api/friends")
+				.then()
+				.statusCode(413);
+	}
+}
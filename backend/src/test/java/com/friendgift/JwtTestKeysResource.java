@@ -7,35 +7,54 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
 import java.util.Base64;
 import java.util.Map;
 
 public class JwtTestKeysResource implements QuarkusTestResourceLifecycleManager {
 	private Path tempDir;
 
+	/**
+	 * One key pair per supported algorithm; the locations follow {@code friendgift.jwt.algorithm}, so a
+	 * test profile only has to switch the algorithm.
+	 */
 	@Override
 	public Map<String, String> start() {
 		try {
 			tempDir = Files.createTempDirectory("friendgift-jwt-");
-			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
-			generator.initialize(2048);
-			KeyPair keyPair = generator.generateKeyPair();
-
-			Path privateKeyPath = tempDir.resolve("privateKey.pem");
-			Path publicKeyPath = tempDir.resolve("publicKey.pem");
-
-			Files.writeString(privateKeyPath, toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded()), StandardCharsets.US_ASCII);
-			Files.writeString(publicKeyPath, toPem("PUBLIC KEY", keyPair.getPublic().getEncoded()), StandardCharsets.US_ASCII);
+			writeKeyPair("RS256", rsa());
+			writeKeyPair("ES256", ec());
+			writeKeyPair("EdDSA", KeyPairGenerator.getInstance("Ed25519").generateKeyPair());
 
+			// Forward slashes: a backslash is not safe in a value holding an expression.
+			String keys = tempDir.toAbsolutePath().toString().replace('\\', '/') + "/${friendgift.jwt.algorithm}/";
 			return Map.of(
-					"smallrye.jwt.sign.key.location", privateKeyPath.toAbsolutePath().toString(),
-					"mp.jwt.verify.publickey.location", publicKeyPath.toAbsolutePath().toString()
+					"smallrye.jwt.sign.key.location", keys + "privateKey.pem",
+					"mp.jwt.verify.publickey.location", keys + "publicKey.pem"
 			);
 		} catch (Exception e) {
 			throw new RuntimeException("Unable to generate JWT test keys", e);
 		}
 	}
 
+	private static KeyPair rsa() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		return generator.generateKeyPair();
+	}
+
+	private static KeyPair ec() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		return generator.generateKeyPair();
+	}
+
+	private void writeKeyPair(String algorithm, KeyPair keyPair) throws Exception {
+		Path dir = Files.createDirectories(tempDir.resolve(algorithm));
+		Files.writeString(dir.resolve("privateKey.pem"), toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded()), StandardCharsets.US_ASCII);
+		Files.writeString(dir.resolve("publicKey.pem"), toPem("PUBLIC KEY", keyPair.getPublic().getEncoded()), StandardCharsets.US_ASCII);
+	}
+
 	@Override
 	public void stop() {
 		if (tempDir == null) {
@@ -0,0 +1,79 @@
+package com.friendgift;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Asserts how much database work one HTTP call does, from the per-request meters the application
+ * records ({@code friendgift.request.*}, see RequestMetricsFilter). Only work done while serving a
+ * request is in them, so background threads (friend purge, revocation pruning, group commit writer)
+ * cannot leak into a budget. A budget that no longer holds usually means an N+1 or a lost batch.
+ */
+public final class QueryBudget {
+	private final MeterRegistry registry;
+
+	public QueryBudget(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Exactly {@code expected} JDBC statements.
+	 */
+	public <T> T statements(long expected, Supplier<T> call) {
+		Snapshot before = snapshot();
+		T result = call.get();
+		Snapshot used = snapshot().minus(before);
+		assertEquals(expected, used.statements, "JDBC statements");
+		return result;
+	}
+
+	/**
+	 * At most {@code maxStatements} JDBC statements and {@code maxEntityLoads} entities loaded or
+	 * fetched (lazy associations resolved one by one show up as loads).
+	 */
+	public <T> T atMost(long maxStatements, long maxEntityLoads, Supplier<T> call) {
+		Snapshot before = snapshot();
+		T result = call.get();
+		Snapshot used = snapshot().minus(before);
+		assertTrue(used.statements <= maxStatements, "JDBC statements: " + used.statements + " > " + maxStatements);
+		assertTrue(used.entityLoads <= maxEntityLoads, "Entity loads: " + used.entityLoads + " > " + maxEntityLoads);
+		return result;
+	}
+
+	private static final class Snapshot {
+		final long requests;
+		final long statements;
+		final long entityLoads;
+
+		Snapshot(long requests, long statements, long entityLoads) {
+			this.requests = requests;
+			this.statements = statements;
+			this.entityLoads = entityLoads;
+		}
+
+		/** The work of the calls in between, which must have been exactly one request. */
+		Snapshot minus(Snapshot before) {
+			assertEquals(1, requests - before.requests, "measured requests");
+			return new Snapshot(1, statements - before.statements, entityLoads - before.entityLoads);
+		}
+	}
+
+	private Snapshot snapshot() {
+		long requests = 0;
+		long statements = 0;
+		for (DistributionSummary summary : registry.find("friendgift.request.statements").summaries()) {
+			requests += summary.count();
+			statements += (long) summary.totalAmount();
+		}
+		long entityLoads = 0;
+		for (DistributionSummary summary : registry.find("friendgift.request.entity.loads").summaries()) {
+			entityLoads += (long) summary.totalAmount();
+		}
+		return new Snapshot(requests, statements, entityLoads);
+	}
+}
@@ -0,0 +1,160 @@
+package com.friendgift;
+
+import com.friendgift.data.FriendRepository;
+import com.friendgift.data.GiftIdeaRepository;
+import com.friendgift.data.PageCursor;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every hot repository query, captures the SQL Hibernate sends for it from the
+ * {@code org.hibernate.SQL} log, and fails when H2's EXPLAIN of that statement shows a table scan,
+ * so a migration that drops or reorders an index, or a query change that stops using one, is caught
+ * before it reaches a real dataset. H2 plans a statement without its parameters being set.
+ */
+@QuarkusTest
+@TestProfile(QueryPlanTest.Profile.class)
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class QueryPlanTest {
+	public static class Profile implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of(
+					"quarkus.hibernate-orm.log.sql", "true",
+					"quarkus.hibernate-orm.log.format-sql", "false",
+					"quarkus.log.category.\"org.hibernate.SQL\".level", "DEBUG");
+		}
+	}
+
+	private static final UUID ID = UUID.fromString("0190f5c3-8a4e-7b21-9c3d-5e6f70819a2b");
+	private static final PageCursor AFTER = new PageCursor(Instant.parse("2024-01-01T00:00:00Z"), ID);
+
+	@Inject
+	AgroalDataSource dataSource;
+
+	@Inject
+	FriendRepository friendRepository;
+
+	@Inject
+	GiftIdeaRepository giftIdeaRepository;
+
+	private Map<String, Runnable> hotQueries() {
+		Map<String, Runnable> queries = new LinkedHashMap<>();
+		queries.put("listByOwnerUsername", () -> friendRepository.listByOwnerUsername("omar", null, 51));
+		queries.put("listByOwnerUsername after", () -> friendRepository.listByOwnerUsername("omar", AFTER, 51));
+		// The count and latest-idea subqueries must each read a range of ix_gift_idea_friend_created.
+		queries.put("listOverviewByOwnerUsername", () -> friendRepository.listOverviewByOwnerUsername("omar", null, 51));
+		queries.put("listOverviewByOwnerUsername after", () -> friendRepository.listOverviewByOwnerUsername("omar", AFTER, 51));
+		queries.put("findOverviewByOwnerAndId", () -> friendRepository.findOverviewByOwnerAndId("omar", ID));
+		queries.put("findByOwnerAndId", () -> friendRepository.findByOwnerAndId("omar", ID));
+		queries.put("listByOwnerAndFriendNewestFirst",
+				() -> giftIdeaRepository.listByOwnerAndFriendNewestFirst("omar", ID, null, 51));
+		queries.put("listByOwnerAndFriendNewestFirst after",
+				() -> giftIdeaRepository.listByOwnerAndFriendNewestFirst("omar", ID, AFTER, 51));
+		// FriendPurge
+		queries.put("findNextDeleted", () -> friendRepository.findNextDeleted());
+		queries.put("deleteChunkOfFriend", () -> giftIdeaRepository.deleteChunkOfFriend(ID, 500));
+		return queries;
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"listByOwnerUsername",
+			"listByOwnerUsername after",
+			"listOverviewByOwnerUsername",
+			"listOverviewByOwnerUsername after",
+			"findOverviewByOwnerAndId",
+			"findByOwnerAndId",
+			"listByOwnerAndFriendNewestFirst",
+			"listByOwnerAndFriendNewestFirst after",
+			"findNextDeleted",
+			"deleteChunkOfFriend"
+	})
+	void hot_queries_use_an_index(String query) throws Exception {
+		List<String> statements = capture(hotQueries().get(query));
+		assertFalse(statements.isEmpty(), () -> "No SQL captured for " + query);
+		for (String sql : statements) {
+			String plan = explain(sql);
+			assertTrue(plan.contains("/* PUBLIC."), () -> "Unexpected plan format: " + plan);
+			assertFalse(plan.contains("tableScan"), () -> "Table scan in plan of " + query + ":\n" + plan);
+		}
+	}
+
+	@Test
+	void overview_subqueries_read_the_idea_index() throws Exception {
+		for (String sql : capture(hotQueries().get("listOverviewByOwnerUsername"))) {
+			String plan = explain(sql);
+			assertTrue(plan.toUpperCase().contains("IX_GIFT_IDEA_FRIEND_CREATED"), () -> "Subqueries off the index:\n" + plan);
+		}
+	}
+
+	/**
+	 * The statements {@code query} sends from this thread, in its own transaction: the friend purge
+	 * keeps running in the background and logs its own.
+	 */
+	private static List<String> capture(Runnable query) {
+		long thread = Thread.currentThread().getId();
+		List<String> statements = Collections.synchronizedList(new ArrayList<>());
+		Handler handler = new Handler() {
+			@Override
+			public void publish(LogRecord record) {
+				if (record.getLongThreadID() == thread) {
+					statements.add(record.getMessage());
+				}
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		Logger logger = Logger.getLogger("org.hibernate.SQL");
+		logger.addHandler(handler);
+		try {
+			QuarkusTransaction.requiringNew().run(query);
+		} finally {
+			logger.removeHandler(handler);
+		}
+		return List.copyOf(statements);
+	}
+
+	private String explain(String sql) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+			StringBuilder plan = new StringBuilder();
+			while (rs.next()) {
+				plan.append(rs.getString(1)).append('\n');
+			}
+			return plan.toString();
+		}
+	}
+}
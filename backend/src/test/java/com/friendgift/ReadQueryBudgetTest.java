@@ -0,0 +1,94 @@
+package com.friendgift;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.friendgift.ApiFixtures.authorized;
+import static com.friendgift.ApiFixtures.register;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Read endpoints cost a fixed number of statements whatever the page holds: ten friends with three
+ * ideas each must not mean ten more queries. List pages are projections and load no entity at all.
+ */
+@QuarkusTest
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class ReadQueryBudgetTest {
+	private static final int FRIENDS = 10;
+
+	@Inject
+	MeterRegistry registry;
+
+	@Test
+	void reads_stay_within_their_query_budget() {
+		QueryBudget budget = new QueryBudget(registry);
+		String token = register("qb_");
+
+		StringBuilder friends = new StringBuilder("[");
+		for (int i = 0; i < FRIENDS; i++) {
+			friends.append(i == 0 ? "" : ",").append("{\"name\":\"Ami ").append(i).append("\"}");
+		}
+		List<String> ids = authorized(token)
+				.contentType(ContentType.JSON)
+				.body(friends.append("]").toString())
+				.post("/api/friends:batch")
+				.then()
+				.statusCode(200)
+				.extract()
+				.path("value.id");
+		for (String id : ids) {
+			authorized(token)
+					.contentType(ContentType.JSON)
+					.body("[{\"text\":\"Livre\"},{\"text\":\"Plante\"},{\"text\":\"Jeu de cartes\"}]")
+					.post("/api/friends/" + id + "/ideas:batch")
+					.then()
+					.statusCode(200);
+		}
+
+		budget.atMost(1, 0, () -> authorized(token)
+				.get("/api/friends")
+				.then()
+				.statusCode(200)
+				.body("$", hasSize(FRIENDS)));
+
+		budget.atMost(1, 0, () -> authorized(token)
+				.get("/api/friends/overview")
+				.then()
+				.statusCode(200)
+				.body("$", hasSize(FRIENDS)));
+
+		budget.atMost(1, 0, () -> authorized(token)
+				.get("/api/friends/" + ids.get(0) + "/ideas")
+				.then()
+				.statusCode(200)
+				.body("$", hasSize(3)));
+
+		authorized(token).get("/api/ideas/search?q=livre").then().statusCode(200);
+		budget.statements(0, () -> authorized(token)
+				.get("/api/ideas/search?q=plante")
+				.then()
+				.statusCode(200)
+				.body("$", hasSize(FRIENDS)));
+
+		budget.atMost(1, 0, () -> authorized(token)
+				.get("/api/export")
+				.then()
+				.statusCode(200));
+
+		given()
+				.when()
+				.get("/q/metrics")
+				.then()
+				.statusCode(200)
+				.body(containsString("friendgift_request_statements"))
+				.body(containsString("http_server_requests_seconds_bucket"));
+	}
+}
@@ -0,0 +1,161 @@
+package com.friendgift;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Every write endpoint must be a single ownership-checked statement: no SELECT before the write. A write
+ * that changes something adds two change-log statements (sequence bump, entry insert); a miss adds none.
+ */
+@QuarkusTest
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class WriteRoundTripsTest {
+	@Inject
+	MeterRegistry registry;
+
+	private QueryBudget budget;
+	private String token;
+
+	@BeforeEach
+	void register() {
+		budget = new QueryBudget(registry);
+		String username = "rt_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+		token = given()
+				.contentType(ContentType.JSON)
+				.body("{\"username\":\"" + username + "\",\"password\":\"password123\"}")
+				.when()
+				.post("/api/auth/register")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("token");
+	}
+
+	@Test
+	void create_update_delete_friend() {
+		String friendId = budget.statements(3, () -> authorized()
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Eve\"}")
+				.post("/api/friends")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id"));
+
+		budget.statements(3, () -> authorized()
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Eve B.\"}")
+				.put("/api/friends/" + friendId)
+				.then()
+				.statusCode(200));
+
+		budget.statements(1, () -> authorized()
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Nobody\"}")
+				.put("/api/friends/" + UUID.randomUUID())
+				.then()
+				.statusCode(404));
+
+		budget.statements(3, () -> authorized()
+				.delete("/api/friends/" + friendId)
+				.then()
+				.statusCode(204));
+
+		budget.statements(1, () -> authorized()
+				.delete("/api/friends/" + friendId)
+				.then()
+				.statusCode(404));
+	}
+
+	@Test
+	void add_idea() {
+		String friendId = authorized()
+				.contentType(ContentType.JSON)
+				.body("{\"name\":\"Finn\"}")
+				.post("/api/friends")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id");
+
+		budget.statements(3, () -> authorized()
+				.contentType(ContentType.JSON)
+				.body("{\"text\":\"Livre\"}")
+				.post("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(201));
+
+		budget.statements(1, () -> authorized()
+				.contentType(ContentType.JSON)
+				.body("{\"text\":\"Livre\"}")
+				.post("/api/friends/" + UUID.randomUUID() + "/ideas")
+				.then()
+				.statusCode(404));
+	}
+
+	@Test
+	void batch_inserts_are_one_jdbc_batch() {
+		budget.statements(3, () -> authorized()
+				.contentType(ContentType.JSON)
+				.body("[{\"name\":\"Gus\"},{\"name\":\"  \"},{\"name\":\"Hana\"},{\"name\":\"Ivo\"}]")
+				.post("/api/friends:batch")
+				.then()
+				.statusCode(200)
+				.body("status", contains("OK", "INVALID", "OK", "OK"))
+				.body("[2].value.name", equalTo("Hana")));
+
+		String friendId = authorized()
+				.get("/api/friends")
+				.then()
+				.statusCode(200)
+				.body("name", contains("Gus", "Hana", "Ivo"))
+				.extract()
+				.path("[0].id");
+
+		// Ownership check, then every insert in a single batched statement, and the change log's two.
+		budget.statements(4, () -> authorized()
+				.contentType(ContentType.JSON)
+				.body("[{\"text\":\"Livre\"},{\"text\":\"Plante\"},{},{\"text\":\"Jeu\"}]")
+				.post("/api/friends/" + friendId + "/ideas:batch")
+				.then()
+				.statusCode(200)
+				.body("index", contains(0, 1, 2, 3))
+				.body("status", contains("OK", "OK", "INVALID", "OK")));
+
+		authorized()
+				.get("/api/friends/" + friendId + "/ideas")
+				.then()
+				.statusCode(200)
+				.body("text", contains("Jeu", "Plante", "Livre"));
+
+		budget.statements(1, () -> authorized()
+				.contentType(ContentType.JSON)
+				.body("[{\"text\":\"Livre\"}]")
+				.post("/api/friends/" + UUID.randomUUID() + "/ideas:batch")
+				.then()
+				.statusCode(404));
+
+		budget.statements(0, () -> authorized()
+				.contentType(ContentType.JSON)
+				.body("[]")
+				.post("/api/friends:batch")
+				.then()
+				.statusCode(400));
+	}
+
+	private RequestSpecification authorized() {
+		return given().header("Authorization", "Bearer " + token).when();
+	}
+}
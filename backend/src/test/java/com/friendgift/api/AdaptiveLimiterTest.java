@@ -0,0 +1,75 @@
+package com.friendgift.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveLimiterTest {
+	private static final long MS = 1_000_000;
+
+	@Test
+	void rejects_once_the_limit_is_in_flight() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(3, 1, 10, 2.0);
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		assertEquals(1L, limiter.rejected());
+
+		limiter.release(-1);
+		assertTrue(limiter.tryAcquire());
+		assertEquals(3, limiter.inflight());
+	}
+
+	@Test
+	void grows_while_latency_is_stable_under_load() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 100, 2.0);
+		for (int i = 0; i < 200; i++) {
+			saturate(limiter, 5 * MS);
+		}
+		assertTrue(limiter.limit() > 20, "limit " + limiter.limit());
+	}
+
+	@Test
+	void shrinks_when_latency_climbs_and_recovers_after() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(50, 5, 100, 2.0);
+		for (int i = 0; i < 100; i++) {
+			saturate(limiter, 5 * MS);
+		}
+		int healthy = limiter.limit();
+		for (int i = 0; i < 30; i++) {
+			saturate(limiter, 100 * MS);
+		}
+		int saturated = limiter.limit();
+		assertTrue(saturated < healthy / 2, healthy + " -> " + saturated);
+		assertTrue(limiter.retryAfterSeconds() >= 1);
+
+		for (int i = 0; i < 200; i++) {
+			saturate(limiter, 5 * MS);
+		}
+		assertTrue(limiter.limit() > saturated, saturated + " -> " + limiter.limit());
+	}
+
+	@Test
+	void idle_traffic_does_not_move_the_limit() {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(40, 5, 100, 2.0);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(limiter.tryAcquire());
+			limiter.release(i % 2 == 0 ? 5 * MS : 500 * MS);
+		}
+		assertEquals(40, limiter.limit());
+	}
+
+	/** Fills every slot, then completes one request with the given latency. */
+	private static void saturate(AdaptiveLimiter limiter, long rttNanos) {
+		while (limiter.tryAcquire()) {
+			// fill
+		}
+		limiter.release(rttNanos);
+		while (limiter.inflight() > 0) {
+			limiter.release(-1);
+		}
+	}
+}
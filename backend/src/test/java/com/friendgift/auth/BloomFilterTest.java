@@ -0,0 +1,42 @@
+package com.friendgift.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+	@Test
+	void added_keys_are_never_missed() {
+		BloomFilter filter = new BloomFilter(10_000, 0.001);
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			String key = UUID.randomUUID().toString();
+			keys.add(key);
+			filter.add(key);
+		}
+		for (String key : keys) {
+			assertTrue(filter.mightContain(key), key);
+		}
+	}
+
+	@Test
+	void false_positives_stay_near_the_configured_rate() {
+		BloomFilter filter = new BloomFilter(10_000, 0.001);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add(UUID.randomUUID().toString());
+		}
+		int positives = 0;
+		int probes = 100_000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain(UUID.randomUUID().toString())) {
+				positives++;
+			}
+		}
+		// 0.1% expected; allow some slack for randomness.
+		assertTrue(positives < probes * 0.003, positives + " false positives out of " + probes);
+	}
+}
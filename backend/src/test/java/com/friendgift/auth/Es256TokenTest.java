@@ -0,0 +1,26 @@
+package com.friendgift.auth;
+
+import com.friendgift.JwtTestKeysResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+@QuarkusTest
+@TestProfile(Es256TokenTest.Profile.class)
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class Es256TokenTest extends SigningAlgorithmTest {
+	public static class Profile implements QuarkusTestProfile {
+		@Override
+		public Map<String, String> getConfigOverrides() {
+			return Map.of("friendgift.jwt.algorithm", "ES256");
+		}
+	}
+
+	@Override
+	protected String algorithm() {
+		return "ES256";
+	}
+}
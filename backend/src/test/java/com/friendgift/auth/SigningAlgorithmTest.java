@@ -0,0 +1,33 @@
+package com.friendgift.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static com.friendgift.ApiFixtures.authorized;
+import static com.friendgift.ApiFixtures.login;
+import static com.friendgift.ApiFixtures.newUsername;
+import static com.friendgift.ApiFixtures.registerAs;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tokens signed with {@link #algorithm()} are accepted end to end: issued at registration and login,
+ * then verified on an authenticated endpoint. Subclasses pick the algorithm through a test profile.
+ */
+public abstract class SigningAlgorithmTest {
+	protected abstract String algorithm();
+
+	@Test
+	void issued_tokens_are_verified() {
+		String username = newUsername("alg_");
+		for (String token : new String[] {registerAs(username), login(username)}) {
+			String header = new String(Base64.getUrlDecoder().decode(token.split("\\.")[0]), StandardCharsets.UTF_8);
+			assertTrue(header.contains("\"alg\":\"" + algorithm() + "\""), header);
+			authorized(token)
+					.get("/api/friends")
+					.then()
+					.statusCode(200);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.friendgift.auth;
+
+import com.friendgift.JwtTestKeysResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.jwt.auth.principal.ParseException;
+import io.smallrye.jwt.build.Jwt;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@QuarkusTest
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class TokenCacheTest {
+	@Inject
+	CachingJWTParser parser;
+
+	@Inject
+	TokenIssuer tokenIssuer;
+
+	@Test
+	void repeated_token_is_served_from_cache() throws Exception {
+		String token = tokenIssuer.issue("omar");
+
+		JsonWebToken first = parser.parse(token);
+		long hits = parser.hits();
+		JsonWebToken second = parser.parse(token);
+
+		assertSame(first, second);
+		assertEquals(hits + 1, parser.hits());
+	}
+
+	@Test
+	void tampered_token_is_never_served_from_cache() throws Exception {
+		String token = tokenIssuer.issue("omar");
+		parser.parse(token);
+
+		String[] parts = token.split("\\.");
+		String forgedPayload = Jwt.issuer(TokenIssuer.ISSUER).upn("alice").subject("alice").groups(Set.of("user"))
+				.expiresAt(Instant.now().plus(TokenIssuer.LIFETIME)).sign().split("\\.")[1];
+		char last = parts[2].charAt(parts[2].length() - 1);
+		String badSignature = parts[2].substring(0, parts[2].length() - 1) + (last == 'A' ? 'B' : 'A');
+
+		long hits = parser.hits();
+		assertThrows(ParseException.class, () -> parser.parse(parts[0] + "." + forgedPayload + "." + parts[2]));
+		assertThrows(ParseException.class, () -> parser.parse(parts[0] + "." + parts[1] + "." + badSignature));
+		assertEquals(hits, parser.hits());
+
+		given()
+				.header("Authorization", "Bearer " + parts[0] + "." + forgedPayload + "." + parts[2])
+				.when()
+				.get("/api/friends")
+				.then()
+				.statusCode(401);
+	}
+
+	@Test
+	void expired_token_is_never_served_from_cache() throws Exception {
+		Instant expiresAt = Instant.now().plusSeconds(2);
+		String token = Jwt.issuer(TokenIssuer.ISSUER).upn("omar").subject("omar").groups(Set.of("user"))
+				.expiresAt(expiresAt).sign();
+		parser.parse(token);
+
+		Thread.sleep(Math.max(0, expiresAt.toEpochMilli() - System.currentTimeMillis()) + 1000);
+
+		long hits = parser.hits();
+		long misses = parser.misses();
+		try {
+			parser.parse(token);
+		} catch (ParseException e) {
+			// Rejected outright, or accepted within the verifier's clock skew: either way not a cache hit.
+		}
+		assertEquals(hits, parser.hits());
+		assertEquals(misses + 1, parser.misses());
+	}
+}
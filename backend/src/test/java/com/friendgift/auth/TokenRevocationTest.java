@@ -0,0 +1,123 @@
+package com.friendgift.auth;
+
+import com.friendgift.JwtTestKeysResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.friendgift.ApiFixtures.login;
+import static com.friendgift.ApiFixtures.newUsername;
+import static com.friendgift.ApiFixtures.registerAs;
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@QuarkusTestResource(JwtTestKeysResource.class)
+public class TokenRevocationTest {
+	/** Listed in {@code %test.friendgift.admins}. */
+	private static final String ADMIN = "rvadmin";
+
+	@Inject
+	TokenIssuer tokenIssuer;
+
+	@Inject
+	TokenRevocations revocations;
+
+	@Test
+	void logout_revokes_only_the_token_it_was_sent_with() {
+		String username = newUsername("rv_");
+		String token = registerAs(username);
+		String otherSession = login(username);
+		assertEquals(200, listFriends(token));
+
+		long rejected = revocations.rejected();
+		given()
+				.header("Authorization", "Bearer " + token)
+				.post("/api/auth/logout")
+				.then()
+				.statusCode(204);
+
+		assertEquals(401, listFriends(token));
+		assertEquals(200, listFriends(otherSession));
+		assertEquals(200, listFriends(login(username)));
+		assertEquals(rejected + 1, revocations.rejected());
+	}
+
+	@Test
+	void concurrent_logouts_of_one_token_all_succeed() throws Exception {
+		String username = newUsername("rv_");
+		registerAs(username);
+		String jti = UUID.randomUUID().toString();
+		Instant expiresAt = Instant.now().plus(TokenIssuer.LIFETIME);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> logouts = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				logouts.add(pool.submit(() -> {
+					start.await();
+					revocations.revoke(jti, username, expiresAt);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> logout : logouts) {
+				logout.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertTrue(revocations.isRevokedInDatabase(jti));
+	}
+
+	@Test
+	void admin_signs_a_user_out_everywhere() {
+		String username = newUsername("rv_");
+		String token = registerAs(username);
+		String otherSession = login(username);
+
+		given()
+				.header("Authorization", "Bearer " + token)
+				.delete("/api/admin/users/" + username + "/tokens")
+				.then()
+				.statusCode(403);
+
+		String admin = tokenIssuer.issue(ADMIN);
+		given()
+				.header("Authorization", "Bearer " + admin)
+				.delete("/api/admin/users/" + username + "/tokens")
+				.then()
+				.statusCode(204);
+		given()
+				.header("Authorization", "Bearer " + admin)
+				.delete("/api/admin/users/nobody_" + UUID.randomUUID().toString().substring(0, 8) + "/tokens")
+				.then()
+				.statusCode(404);
+
+		assertEquals(401, listFriends(token));
+		assertEquals(401, listFriends(otherSession));
+		assertEquals(200, listFriends(admin));
+	}
+
+	private static int listFriends(String token) {
+		return given()
+				.header("Authorization", "Bearer " + token)
+				.get("/api/friends")
+				.then()
+				.extract()
+				.statusCode();
+	}
+}
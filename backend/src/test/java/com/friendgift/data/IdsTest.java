@@ -0,0 +1,54 @@
+package com.friendgift.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdsTest {
+	@Test
+	void ids_are_version_7_and_carry_the_current_time() {
+		long before = System.currentTimeMillis();
+		UUID id = Ids.next();
+		long after = System.currentTimeMillis();
+
+		assertEquals(7, id.version());
+		assertEquals(2, id.variant());
+		long millis = id.getMostSignificantBits() >>> 16;
+		// Never behind the clock; ahead of it only by what bursts of ids carried into the timestamp.
+		assertTrue(millis >= before && millis <= after + 1000, "timestamp " + millis);
+	}
+
+	@Test
+	void ids_strictly_increase_even_within_a_millisecond() {
+		UUID previous = Ids.next();
+		for (int i = 0; i < 100_000; i++) {
+			UUID id = Ids.next();
+			assertTrue(Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()) > 0, previous + " then " + id);
+			previous = id;
+		}
+	}
+
+	@Test
+	void text_form_round_trips_and_sorts_like_the_ids() {
+		UUID first = Ids.next();
+		UUID second = Ids.next();
+		assertEquals(Optional.of(first), Ids.parse(first.toString()));
+		assertTrue(first.toString().compareTo(second.toString()) < 0);
+	}
+
+	@Test
+	void only_the_canonical_form_parses() {
+		assertTrue(Ids.parse("0b7a9a52-3c1e-4f0e-9d51-6f5e0d1c2b3a").isPresent());
+		assertTrue(Ids.parse("0B7A9A52-3C1E-4F0E-9D51-6F5E0D1C2B3A").isPresent());
+		assertFalse(Ids.parse("1-1-1-1-1").isPresent());
+		assertFalse(Ids.parse("0b7a9a523c1e4f0e9d516f5e0d1c2b3a").isPresent());
+		assertFalse(Ids.parse("0b7a9a52-3c1e-4f0e-9d51-6f5e0d1c2b3z").isPresent());
+		assertFalse(Ids.parse("nope").isPresent());
+		assertFalse(Ids.parse(null).isPresent());
+	}
+}
@@ -0,0 +1,40 @@
+package com.friendgift.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdeaSignatureTest {
+	private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+
+	@Test
+	void case_accents_punctuation_and_plurals_do_not_count() {
+		byte[] a = IdeaSignature.of("Montre connectée");
+		assertEquals(IdeaSignature.BYTES, a.length);
+		assertEquals(1.0, IdeaSignature.similarity(a, IdeaSignature.of("montre connectee !")));
+		assertEquals(1.0, IdeaSignature.similarity(a, IdeaSignature.of("  MONTRES   connectées")));
+	}
+
+	@Test
+	void different_ideas_are_far_apart() {
+		byte[] watch = IdeaSignature.of("Montre connectée");
+		assertTrue(IdeaSignature.similarity(watch, IdeaSignature.of("Livre de cuisine italienne")) < 0.3);
+		assertTrue(IdeaSignature.similarity(watch, IdeaSignature.of("Jeu")) < 0.3);
+	}
+
+	@Test
+	void index_finds_the_near_duplicate_through_its_buckets() {
+		FriendSignatures index = new FriendSignatures();
+		index.add("1", "Livre de cuisine italienne", NOW, IdeaSignature.of("Livre de cuisine italienne"));
+		index.add("2", "Montre connectée", NOW, IdeaSignature.of("Montre connectée"));
+		index.add("2", "Montre connectée", NOW, IdeaSignature.of("Montre connectée"));
+
+		FriendSignatures.Entry match = index.closest(IdeaSignature.of("montre connectee !"), 0.8);
+		assertEquals("2", match.id);
+		assertNull(index.closest(IdeaSignature.of("Casque audio sans fil"), 0.8));
+	}
+}
@@ -0,0 +1,84 @@
+package com.friendgift.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OwnerIndexTest {
+	private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+	private static List<String> ids(OwnerIndex index, String query) {
+		return index.search(TextNormalizer.queryTokens(query), 0, 10).hits.stream().map(h -> h.doc.id).toList();
+	}
+
+	@Test
+	void accents_case_and_plurals_are_folded() {
+		OwnerIndex index = new OwnerIndex();
+		index.add("1", "f", "Montre connectée", T0);
+		index.add("2", "f", "Livre de cuisine", T0);
+
+		assertEquals(List.of("1"), ids(index, "montre connectee"));
+		assertEquals(List.of("1"), ids(index, "CONNECTÉE"));
+		assertEquals(List.of("1"), ids(index, "montres"));
+		assertEquals(List.of("2"), ids(index, "livre de cuisine"));
+	}
+
+	@Test
+	void every_word_must_match_and_the_last_one_is_a_prefix() {
+		OwnerIndex index = new OwnerIndex();
+		index.add("1", "f", "Montre connectée", T0);
+		index.add("2", "f", "Montre de plongée", T0);
+
+		assertEquals(List.of("1"), ids(index, "montre conn"));
+		assertEquals(2, ids(index, "mon").size());
+		assertTrue(ids(index, "conn montre").isEmpty());
+		assertEquals(2, ids(index, "montre de").size());
+	}
+
+	@Test
+	void better_matches_rank_first_then_newest() {
+		OwnerIndex index = new OwnerIndex();
+		index.add("old", "f", "Jeu de société", T0);
+		index.add("new", "f", "Jeu de cartes", T0.plusSeconds(60));
+		index.add("long", "f", "Jeu vidéo avec une très longue description de console", T0.plusSeconds(120));
+		index.add("rare", "f", "Puzzle", T0);
+
+		assertEquals(List.of("new", "old", "long"), ids(index, "jeu"));
+	}
+
+	@Test
+	void pages_through_the_ranking() {
+		OwnerIndex index = new OwnerIndex();
+		for (int i = 0; i < 5; i++) {
+			index.add("i" + i, "f", "Livre", T0.plusSeconds(i));
+		}
+
+		OwnerIndex.Result first = index.search(List.of("livre"), 0, 2);
+		OwnerIndex.Result last = index.search(List.of("livre"), 4, 2);
+		assertEquals(List.of("i4", "i3"), first.hits.stream().map(h -> h.doc.id).toList());
+		assertTrue(first.more);
+		assertEquals(List.of("i0"), last.hits.stream().map(h -> h.doc.id).toList());
+		assertFalse(last.more);
+	}
+
+	@Test
+	void updates_are_idempotent_and_friend_removal_drops_ideas() {
+		OwnerIndex index = new OwnerIndex();
+		index.putFriend("a", "Ana");
+		index.add("1", "a", "Plante", T0);
+		index.add("1", "a", "Plante", T0);
+		index.add("2", "b", "Plante verte", T0);
+		assertEquals(2, index.size());
+		assertEquals("Ana", index.search(List.of("plante"), 0, 10).hits.stream()
+				.filter(h -> h.doc.id.equals("1")).findFirst().orElseThrow().friendName);
+
+		index.removeFriend("a");
+		assertEquals(List.of("2"), ids(index, "plante"));
+		assertEquals(1, index.size());
+	}
+}
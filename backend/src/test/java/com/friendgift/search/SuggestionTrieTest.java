@@ -0,0 +1,104 @@
+package com.friendgift.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SuggestionTrieTest {
+	private static final Instant NOW = Instant.parse("2024-06-01T00:00:00Z");
+
+	private static List<String> suggest(SuggestionTrie trie, String prefix) {
+		List<String> out = new ArrayList<>();
+		trie.suggest(prefix, 10, out);
+		return out;
+	}
+
+	@Test
+	void ranks_by_frequency_and_folds_accents_case_and_spaces() {
+		SuggestionTrie trie = new SuggestionTrie(1, 1000, Duration.ofDays(30), NOW);
+		trie.add("Montre", "a", NOW);
+		trie.add("Montre connectée", "a", NOW);
+		trie.add("montre  CONNECTÉE ", "b", NOW);
+
+		assertEquals(List.of("montre CONNECTÉE", "Montre"), suggest(trie, "MON"));
+		assertEquals(List.of("montre CONNECTÉE"), suggest(trie, "montre conne"));
+		assertEquals(List.of("montre CONNECTÉE"), suggest(trie, "montre "));
+		assertEquals(2, trie.size());
+	}
+
+	@Test
+	void recent_phrases_outrank_older_ones_with_more_uses() {
+		SuggestionTrie trie = new SuggestionTrie(1, 1000, Duration.ofDays(30), NOW);
+		for (int i = 0; i < 3; i++) {
+			trie.add("Lampe de chevet", "u" + i, NOW.minus(Duration.ofDays(90)));
+		}
+		trie.add("Lampe à lave", "u", NOW);
+
+		assertEquals(List.of("Lampe à lave", "Lampe de chevet"), suggest(trie, "lampe"));
+	}
+
+	@Test
+	void phrases_need_several_writers_unless_seeded() {
+		SuggestionTrie trie = new SuggestionTrie(2, 1000, Duration.ofDays(30), NOW);
+		trie.add("Carte cadeau", null, NOW);
+		trie.add("Carnet secret de Léa", "lea", NOW);
+		trie.add("Carnet secret de Léa", "lea", NOW);
+
+		assertEquals(List.of("Carte cadeau"), suggest(trie, "car"));
+
+		trie.add("Carnet secret de Léa", "max", NOW);
+		assertEquals(List.of("Carnet secret de Léa", "Carte cadeau"), suggest(trie, "car"));
+	}
+
+	@Test
+	void prefixes_longer_than_the_trie_depth_are_filtered_from_the_bucket() {
+		SuggestionTrie trie = new SuggestionTrie(1, 1000, Duration.ofDays(30), NOW);
+		trie.add("Abonnement salle de sport", "a", NOW);
+		trie.add("Abonnement streaming", "a", NOW);
+		trie.add("Abonnement streaming", "b", NOW);
+
+		assertEquals(List.of("Abonnement streaming"), suggest(trie, "abonnement str"));
+		assertEquals(List.of("Abonnement salle de sport"), suggest(trie, "abonnement salle"));
+		assertTrue(suggest(trie, "abonnement sallex").isEmpty());
+		assertEquals(List.of("Abonnement streaming", "Abonnement salle de sport"), suggest(trie, ""));
+	}
+
+	@Test
+	void pending_phrases_are_bounded_and_retracted_with_their_writer() {
+		SuggestionTrie trie = new SuggestionTrie(2, 2, Duration.ofDays(30), NOW);
+		trie.add("Puzzle", "a", NOW);
+		trie.add("Poster", "a", NOW);
+		trie.add("Peluche", "a", NOW);
+		assertEquals(2, trie.size());
+
+		// "Puzzle" was forgotten: one more writer is not enough any more.
+		trie.add("Puzzle", "b", NOW);
+		assertTrue(suggest(trie, "pu").isEmpty());
+
+		trie.retract("Peluche", "a");
+		trie.add("Peluche", "b", NOW);
+		assertTrue(suggest(trie, "pe").isEmpty());
+		trie.add("Peluche", "c", NOW);
+		assertEquals(List.of("Peluche"), suggest(trie, "pe"));
+	}
+
+	@Test
+	void deepest_buckets_keep_only_the_best_phrases() {
+		SuggestionTrie trie = new SuggestionTrie(1, 1000, Duration.ofDays(30), NOW);
+		for (int i = 0; i < SuggestionTrie.MAX_BUCKET + 10; i++) {
+			trie.add("Abonnement numéro " + i, "a", NOW);
+		}
+		trie.add("Abonnement numéro 3", "b", NOW);
+
+		List<String> out = new ArrayList<>();
+		trie.suggest("abonnement num", SuggestionTrie.MAX_BUCKET + 20, out);
+		assertEquals(SuggestionTrie.MAX_BUCKET, out.size());
+		assertEquals("Abonnement numéro 3", out.get(0));
+	}
+}
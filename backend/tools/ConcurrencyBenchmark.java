@@ -0,0 +1,163 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load against a running backend at rising concurrency: every client loops on
+ * {@code GET /api/friends} and {@code GET /api/friends/{id}/ideas} as the demo user and the tool
+ * prints throughput and latency percentiles per level. Run it once per thread mode and compare
+ * (tools/compare-thread-modes.ps1 does both runs). JDK only:
+ *
+ * <pre>
+ * java tools/ConcurrencyBenchmark.java [baseUrl] [levels] [seconds-per-level] [label]
+ * java tools/ConcurrencyBenchmark.java http://localhost:8080 16,64,256,1024 10 virtual
+ * </pre>
+ */
+public class ConcurrencyBenchmark {
+	private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		int[] levels = Arrays.stream((args.length > 1 ? args[1] : "16,64,256,1024").split(","))
+				.mapToInt(s -> Integer.parseInt(s.trim()))
+				.toArray();
+		long seconds = args.length > 2 ? Long.parseLong(args[2]) : 10;
+		String label = args.length > 3 ? args[3] : "";
+
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+		String token = login(client, baseUrl);
+		String friendId = firstFriendId(client, baseUrl, token);
+		List<HttpRequest> requests = List.of(
+				get(baseUrl + "/api/friends", token),
+				get(baseUrl + "/api/friends/" + friendId + "/ideas", token));
+
+		// Warm-up: JIT, connection pools, Hibernate caches.
+		run(client, requests, 16, 5);
+
+		System.out.printf("%n%-10s %8s %10s %9s %9s %9s %8s%n", "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+		for (int level : levels) {
+			Stats stats = run(client, requests, level, seconds);
+			System.out.printf("%-10s %8d %10.0f %9.1f %9.1f %9.1f %8d%n", label, level, stats.throughput,
+					stats.percentile(0.50), stats.percentile(0.99), stats.percentile(1.0), stats.errors);
+		}
+	}
+
+	private static final class Stats {
+		final long[] latenciesNanos;
+		final double throughput;
+		final long errors;
+
+		Stats(long[] latenciesNanos, double throughput, long errors) {
+			this.latenciesNanos = latenciesNanos;
+			this.throughput = throughput;
+			this.errors = errors;
+		}
+
+		double percentile(double p) {
+			if (latenciesNanos.length == 0) {
+				return Double.NaN;
+			}
+			int index = (int) Math.min(latenciesNanos.length - 1, Math.ceil(p * latenciesNanos.length) - 1);
+			return latenciesNanos[Math.max(0, index)] / 1e6;
+		}
+	}
+
+	private static Stats run(HttpClient client, List<HttpRequest> requests, int clients, long seconds) throws Exception {
+		long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+		AtomicLong errors = new AtomicLong();
+		List<long[]> perClient = new ArrayList<>();
+		int[] counts = new int[clients];
+		CountDownLatch done = new CountDownLatch(clients);
+		long start = System.nanoTime();
+		for (int c = 0; c < clients; c++) {
+			long[] samples = new long[1 << 16];
+			perClient.add(samples);
+			int id = c;
+			Thread thread = new Thread(() -> {
+				try {
+					long[] buffer = samples;
+					int n = 0;
+					int i = id;
+					while (System.nanoTime() < deadline) {
+						HttpRequest request = requests.get(i++ % requests.size());
+						long t0 = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() != 200) {
+								errors.incrementAndGet();
+								continue;
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+							continue;
+						}
+						if (n == buffer.length) {
+							buffer = Arrays.copyOf(buffer, n * 2);
+							perClient.set(id, buffer);
+						}
+						buffer[n++] = System.nanoTime() - t0;
+					}
+					counts[id] = n;
+				} finally {
+					done.countDown();
+				}
+			}, "bench-client-" + c);
+			thread.setDaemon(true);
+			thread.start();
+		}
+		done.await();
+		double elapsed = (System.nanoTime() - start) / 1e9;
+
+		int total = Arrays.stream(counts).sum();
+		long[] all = new long[total];
+		int at = 0;
+		for (int c = 0; c < clients; c++) {
+			System.arraycopy(perClient.get(c), 0, all, at, counts[c]);
+			at += counts[c];
+		}
+		Arrays.sort(all);
+		return new Stats(all, total / elapsed, errors.get());
+	}
+
+	private static HttpRequest get(String url, String token) {
+		return HttpRequest.newBuilder(URI.create(url))
+				.header("Authorization", "Bearer " + token)
+				.header("Accept", "application/json")
+				.timeout(Duration.ofSeconds(30))
+				.GET()
+				.build();
+	}
+
+	private static String login(HttpClient client, String baseUrl) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"omar\",\"password\":\"password\"}"))
+				.build();
+		return extract(TOKEN, client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+	}
+
+	private static String firstFriendId(HttpClient client, String baseUrl, String token) throws Exception {
+		return extract(ID, client.send(get(baseUrl + "/api/friends?limit=1", token), HttpResponse.BodyHandlers.ofString()).body());
+	}
+
+	private static String extract(Pattern pattern, String body) {
+		Matcher matcher = pattern.matcher(body);
+		if (!matcher.find()) {
+			throw new IllegalStateException("Unexpected response: " + body);
+		}
+		return matcher.group(1);
+	}
+}
@@ -2,22 +2,24 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.GeneralSecurityException;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
-import java.security.NoSuchAlgorithmException;
+import java.security.spec.ECGenParameterSpec;
 import java.util.Base64;
 
 public class GenerateJwtKeys {
 	public static void main(String[] args) throws Exception {
-		if (args.length != 2) {
-			System.err.println("Usage: java GenerateJwtKeys <privateKeyPemPath> <publicKeyPemPath>");
+		if (args.length != 2 && args.length != 3) {
+			System.err.println("Usage: java GenerateJwtKeys <privateKeyPemPath> <publicKeyPemPath> [RS256|ES256|EdDSA]");
 			System.exit(2);
 		}
 
 		Path privateKeyPath = Path.of(args[0]);
 		Path publicKeyPath = Path.of(args[1]);
+		String algorithm = args.length == 3 ? args[2] : "RS256";
 
-		KeyPair keyPair = generateRsaKeyPair();
+		KeyPair keyPair = generateKeyPair(algorithm);
 
 		String privatePem = toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded());
 		String publicPem = toPem("PUBLIC KEY", keyPair.getPublic().getEncoded());
@@ -30,9 +32,20 @@ public class GenerateJwtKeys {
 		System.out.println("- " + publicKeyPath.toAbsolutePath());
 	}
 
-	private static KeyPair generateRsaKeyPair() throws NoSuchAlgorithmException {
-		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
-		generator.initialize(2048);
+	private static KeyPair generateKeyPair(String algorithm) throws GeneralSecurityException {
+		KeyPairGenerator generator;
+		switch (algorithm.toUpperCase()) {
+			case "RS256" -> {
+				generator = KeyPairGenerator.getInstance("RSA");
+				generator.initialize(2048);
+			}
+			case "ES256" -> {
+				generator = KeyPairGenerator.getInstance("EC");
+				generator.initialize(new ECGenParameterSpec("secp256r1"));
+			}
+			case "EDDSA" -> generator = KeyPairGenerator.getInstance("Ed25519");
+			default -> throw new IllegalArgumentException("Unsupported algorithm: " + algorithm + " (expected RS256, ES256 or EdDSA)");
+		}
 		return generator.generateKeyPair();
 	}
 
@@ -0,0 +1,345 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load against a local backend with a realistic request mix (mostly reads, some idea
+ * writes, a few logins and sign-ups). Each client logs in as one of the synthetic users created by
+ * {@code friendgift.seed.users} (or as the demo user when {@code users} is 0) and loops until the
+ * deadline. Latencies are recorded per endpoint in log-linear histograms (HDR style, under 1% error)
+ * and summarized at the end; the summary can also be written as JSON. The {@code writes} mix only
+ * adds ideas, for comparing write paths (tools/compare-group-commit.ps1). JDK only:
+ *
+ * <pre>
+ * java tools/LoadDriver.java [baseUrl] [clients] [seconds] [users] [report.json|-] [mixed|writes]
+ * java tools/LoadDriver.java http://localhost:8080 64 60 1000 target/load-report.json
+ * java tools/LoadDriver.java http://localhost:8080 64 30 0 - writes
+ * </pre>
+ */
+public class LoadDriver {
+	private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+	private static final String PASSWORD = "password";
+	private static final String[] IDEAS = {
+			"Livre de cuisine", "Carte cadeau librairie", "Casque audio", "Plante d'intérieur", "Jeu de société",
+			"Coffret de thé", "Places de concert", "Bougie parfumée", "Cours de poterie", "Montre connectée"
+	};
+
+	enum Op {
+		REGISTER("POST /api/auth/register", 2),
+		LOGIN("POST /api/auth/login", 8),
+		LIST_FRIENDS("GET /api/friends", 40),
+		LIST_IDEAS("GET /api/friends/{id}/ideas", 35),
+		ADD_IDEA("POST /api/friends/{id}/ideas", 15);
+
+		final String label;
+		final int weight;
+
+		Op(String label, int weight) {
+			this.label = label;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * Log-linear histogram of microsecond values (HDR style): exact below 256 us, then 128 linear
+	 * sub-buckets per power of two, so every value is reported within 1/128 of its true value.
+	 * Shared by all clients; recording is a short synchronized update, negligible next to an HTTP call.
+	 */
+	static final class Histogram {
+		private static final int SUB_BITS = 8;
+		private static final int SUB_COUNT = 1 << SUB_BITS;
+		private static final int HALF = SUB_COUNT / 2;
+
+		private final long[] counts = new long[SUB_COUNT + (63 - SUB_BITS) * HALF];
+		long total;
+		long errors;
+		long max;
+		double sum;
+
+		synchronized void record(long micros) {
+			long v = Math.max(0, micros);
+			counts[index(v)]++;
+			total++;
+			max = Math.max(max, v);
+			sum += v;
+		}
+
+		synchronized void error() {
+			errors++;
+		}
+
+		synchronized void add(Histogram other) {
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] += other.counts[i];
+			}
+			total += other.total;
+			errors += other.errors;
+			max = Math.max(max, other.max);
+			sum += other.sum;
+		}
+
+		/** Highest value equivalent to the one at quantile {@code q}, in microseconds. */
+		synchronized long percentile(double q) {
+			if (total == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(q * total));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return Math.min(max, highestEquivalent(i));
+				}
+			}
+			return max;
+		}
+
+		synchronized double mean() {
+			return total == 0 ? 0 : sum / total;
+		}
+
+		private static int index(long v) {
+			if (v < SUB_COUNT) {
+				return (int) v;
+			}
+			int magnitude = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1);
+			int sub = (int) (v >>> magnitude) - HALF;
+			return SUB_COUNT + (magnitude - 1) * HALF + sub;
+		}
+
+		private static long highestEquivalent(int index) {
+			if (index < SUB_COUNT) {
+				return index;
+			}
+			int magnitude = (index - SUB_COUNT) / HALF + 1;
+			int top = (index - SUB_COUNT) % HALF + HALF;
+			return ((long) (top + 1) << magnitude) - 1;
+		}
+	}
+
+	static final class Client {
+		final HttpClient http;
+		final String baseUrl;
+		final Histogram[] histograms;
+		String token;
+		String username;
+		List<String> friendIds = List.of();
+
+		Client(HttpClient http, String baseUrl, Histogram[] histograms) {
+			this.http = http;
+			this.baseUrl = baseUrl;
+			this.histograms = histograms;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+		long seconds = args.length > 2 ? Long.parseLong(args[2]) : 30;
+		int users = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+		Path report = args.length > 4 && !args[4].equals("-") ? Path.of(args[4]) : null;
+		boolean writesOnly = args.length > 5 && args[5].equals("writes");
+
+		HttpClient http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+		AtomicLong registrations = new AtomicLong();
+		String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+
+		Histogram[] histograms = new Histogram[Op.values().length];
+		for (int i = 0; i < histograms.length; i++) {
+			histograms[i] = new Histogram();
+		}
+		List<Client> all = new ArrayList<>();
+		for (int c = 0; c < clients; c++) {
+			Client client = new Client(http, baseUrl, histograms);
+			client.username = users > 0 ? String.format("user%05d", 1 + (c % users)) : "omar";
+			all.add(client);
+		}
+
+		System.out.printf("Driving %s with %d clients for %d s (%s, %s)%n", baseUrl, clients, seconds,
+				users > 0 ? users + " synthetic users" : "demo user", writesOnly ? "idea writes only" : "mixed");
+		long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+		CountDownLatch done = new CountDownLatch(clients);
+		long start = System.nanoTime();
+		for (Client client : all) {
+			Thread thread = new Thread(() -> {
+				try {
+					drive(client, runId, registrations, deadline, writesOnly);
+				} finally {
+					done.countDown();
+				}
+			}, "load-client");
+			thread.setDaemon(true);
+			thread.start();
+		}
+		done.await();
+		double elapsed = (System.nanoTime() - start) / 1e9;
+
+		printSummary(histograms, elapsed);
+		if (report != null) {
+			writeJson(report, histograms, elapsed, clients);
+			System.out.println("Report written to " + report.toAbsolutePath());
+		}
+	}
+
+	private static void drive(Client client, String runId, AtomicLong registrations, long deadline, boolean writesOnly) {
+		if (!login(client)) {
+			return;
+		}
+		listFriends(client);
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (System.nanoTime() < deadline) {
+			Op op = writesOnly ? Op.ADD_IDEA : pick(random);
+			if ((op == Op.LIST_IDEAS || op == Op.ADD_IDEA) && client.friendIds.isEmpty()) {
+				op = Op.LIST_FRIENDS;
+			}
+			switch (op) {
+				case REGISTER -> {
+					String name = "lt" + runId + "x" + registrations.incrementAndGet();
+					String body = "{\"username\":\"" + name + "\",\"password\":\"" + PASSWORD + "\"}";
+					timed(client, op, post(client.baseUrl + "/api/auth/register", null, body));
+				}
+				case LOGIN -> login(client);
+				case LIST_FRIENDS -> listFriends(client);
+				case LIST_IDEAS -> timed(client, op, get(client, "/api/friends/" + any(client.friendIds, random) + "/ideas"));
+				case ADD_IDEA -> {
+					String body = "{\"text\":\"" + IDEAS[random.nextInt(IDEAS.length)] + "\"}";
+					timed(client, op, post(client.baseUrl + "/api/friends/" + any(client.friendIds, random) + "/ideas", client.token, body));
+				}
+			}
+		}
+	}
+
+	private static boolean login(Client client) {
+		String body = "{\"username\":\"" + client.username + "\",\"password\":\"" + PASSWORD + "\"}";
+		String response = timed(client, Op.LOGIN, post(client.baseUrl + "/api/auth/login", null, body));
+		if (response == null) {
+			return client.token != null;
+		}
+		Matcher matcher = TOKEN.matcher(response);
+		if (matcher.find()) {
+			client.token = matcher.group(1);
+		}
+		return client.token != null;
+	}
+
+	private static void listFriends(Client client) {
+		String response = timed(client, Op.LIST_FRIENDS, get(client, "/api/friends?limit=200"));
+		if (response != null) {
+			List<String> ids = new ArrayList<>();
+			Matcher matcher = ID.matcher(response);
+			while (matcher.find()) {
+				ids.add(matcher.group(1));
+			}
+			client.friendIds = ids;
+		}
+	}
+
+	/**
+	 * Sends the request and records its latency; null when the call failed (counted as an error).
+	 */
+	private static String timed(Client client, Op op, HttpRequest request) {
+		long t0 = System.nanoTime();
+		try {
+			HttpResponse<String> response = client.http.send(request, HttpResponse.BodyHandlers.ofString());
+			client.histograms[op.ordinal()].record((System.nanoTime() - t0) / 1000);
+			if (response.statusCode() / 100 != 2) {
+				client.histograms[op.ordinal()].error();
+				return null;
+			}
+			return response.body();
+		} catch (IOException | InterruptedException e) {
+			client.histograms[op.ordinal()].error();
+			return null;
+		}
+	}
+
+	private static Op pick(ThreadLocalRandom random) {
+		int roll = random.nextInt(100);
+		for (Op op : Op.values()) {
+			roll -= op.weight;
+			if (roll < 0) {
+				return op;
+			}
+		}
+		return Op.LIST_FRIENDS;
+	}
+
+	private static String any(List<String> ids, ThreadLocalRandom random) {
+		return ids.get(random.nextInt(ids.size()));
+	}
+
+	private static HttpRequest get(Client client, String path) {
+		return HttpRequest.newBuilder(URI.create(client.baseUrl + path))
+				.header("Authorization", "Bearer " + client.token)
+				.header("Accept", "application/json")
+				.timeout(Duration.ofSeconds(30))
+				.GET()
+				.build();
+	}
+
+	private static HttpRequest post(String url, String token, String body) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofSeconds(30))
+				.POST(HttpRequest.BodyPublishers.ofString(body));
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return builder.build();
+	}
+
+	private static void printSummary(Histogram[] histograms, double elapsed) {
+		System.out.printf("%n%-30s %8s %7s %8s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "req/s",
+				"mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		Histogram total = new Histogram();
+		for (Op op : Op.values()) {
+			printRow(op.label, histograms[op.ordinal()], elapsed);
+			total.add(histograms[op.ordinal()]);
+		}
+		printRow("all", total, elapsed);
+	}
+
+	private static void printRow(String label, Histogram h, double elapsed) {
+		System.out.printf(Locale.ROOT, "%-30s %8d %7d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label, h.total, h.errors,
+				h.total / elapsed, h.mean() / 1000, h.percentile(0.50) / 1000.0, h.percentile(0.90) / 1000.0,
+				h.percentile(0.99) / 1000.0, h.percentile(0.999) / 1000.0, h.max / 1000.0);
+	}
+
+	private static void writeJson(Path path, Histogram[] histograms, double elapsed, int clients) throws IOException {
+		StringBuilder json = new StringBuilder();
+		json.append(String.format(Locale.ROOT, "{\"clients\":%d,\"seconds\":%.1f,\"endpoints\":[", clients, elapsed));
+		for (Op op : Op.values()) {
+			Histogram h = histograms[op.ordinal()];
+			if (op.ordinal() > 0) {
+				json.append(',');
+			}
+			json.append(String.format(Locale.ROOT,
+					"{\"endpoint\":\"%s\",\"count\":%d,\"errors\":%d,\"throughput\":%.2f,\"meanMicros\":%.1f,"
+							+ "\"p50Micros\":%d,\"p90Micros\":%d,\"p99Micros\":%d,\"p999Micros\":%d,\"maxMicros\":%d}",
+					op.label, h.total, h.errors, h.total / elapsed, h.mean(), h.percentile(0.50),
+					h.percentile(0.90), h.percentile(0.99), h.percentile(0.999), h.max));
+		}
+		json.append("]}\n");
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		Files.writeString(path, json);
+	}
+}
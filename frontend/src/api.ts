@@ -1,4 +1,4 @@
-import type { FriendDto, GiftIdeaDto, LoginResponse } from './types';
+import type { ChangeEvent, FriendDto, FriendOverviewDto, GiftIdeaDto, IdeaSearchHitDto, LoginResponse, Page } from './types';
 
 const API_BASE_URL = (import.meta.env.VITE_API_BASE_URL as string | undefined) ?? 'http://127.0.0.1:8080';
 
@@ -28,6 +28,27 @@ export function isAuthenticated(): boolean {
 }
 
 async function requestJson<T>(path: string, init?: RequestInit): Promise<T> {
+  const response = await request(path, init);
+
+  // 204 safety
+  if (response.status === 204) {
+    return undefined as T;
+  }
+
+  return (await response.json()) as T;
+}
+
+async function requestPage<T>(path: string, cursor?: string | null): Promise<Page<T>> {
+  const separator = path.includes('?') ? '&' : '?';
+  const query = cursor ? `${separator}cursor=${encodeURIComponent(cursor)}` : '';
+  const response = await request(`${path}${query}`);
+  return {
+    items: (await response.json()) as T[],
+    next: response.headers.get('X-Next-Cursor'),
+  };
+}
+
+async function request(path: string, init?: RequestInit): Promise<Response> {
   const headers = new Headers(init?.headers);
   headers.set('Accept', 'application/json');
 
@@ -49,12 +70,7 @@ async function requestJson<T>(path: string, init?: RequestInit): Promise<T> {
     throw new ApiError(response.status, `HTTP ${response.status}`);
   }
 
-  // 204 safety
-  if (response.status === 204) {
-    return undefined as T;
-  }
-
-  return (await response.json()) as T;
+  return response;
 }
 
 export async function login(username: string, password: string): Promise<LoginResponse> {
@@ -77,8 +93,27 @@ export async function register(username: string, password: string): Promise<Logi
   });
 }
 
-export async function listFriends(): Promise<FriendDto[]> {
-  return await requestJson<FriendDto[]>('/api/friends');
+/** Revokes the current token on the server, then forgets it; signs out locally even if the call fails. */
+export async function logout(): Promise<void> {
+  try {
+    await request('/api/auth/logout', { method: 'POST' });
+  } catch {
+    // Already expired or revoked, or the server is unreachable: the token is dropped anyway.
+  } finally {
+    setToken(null);
+  }
+}
+
+export async function listFriends(cursor?: string | null): Promise<Page<FriendDto>> {
+  return await requestPage<FriendDto>('/api/friends', cursor);
+}
+
+export async function listFriendsOverview(cursor?: string | null): Promise<Page<FriendOverviewDto>> {
+  return await requestPage<FriendOverviewDto>('/api/friends/overview', cursor);
+}
+
+export async function getFriend(friendId: string): Promise<FriendOverviewDto> {
+  return await requestJson<FriendOverviewDto>(`/api/friends/${encodeURIComponent(friendId)}`);
 }
 
 export async function createFriend(name: string): Promise<FriendDto> {
@@ -107,8 +142,8 @@ export async function deleteFriend(friendId: string): Promise<void> {
   });
 }
 
-export async function listIdeas(friendId: string): Promise<GiftIdeaDto[]> {
-  return await requestJson<GiftIdeaDto[]>(`/api/friends/${encodeURIComponent(friendId)}/ideas`);
+export async function listIdeas(friendId: string, cursor?: string | null): Promise<Page<GiftIdeaDto>> {
+  return await requestPage<GiftIdeaDto>(`/api/friends/${encodeURIComponent(friendId)}/ideas`, cursor);
 }
 
 export async function addIdea(friendId: string, text: string): Promise<GiftIdeaDto> {
@@ -120,3 +155,78 @@ export async function addIdea(friendId: string, text: string): Promise<GiftIdeaD
     body: JSON.stringify({ text }),
   });
 }
+
+export async function searchIdeas(q: string, cursor?: string | null): Promise<Page<IdeaSearchHitDto>> {
+  return await requestPage<IdeaSearchHitDto>(`/api/ideas/search?q=${encodeURIComponent(q)}`, cursor);
+}
+
+export async function getSuggestions(prefix: string, limit: number): Promise<string[]> {
+  return await requestJson<string[]>(
+    `/api/suggestions?prefix=${encodeURIComponent(prefix)}&limit=${limit}`,
+  );
+}
+
+/**
+ * Follows `GET /api/events` until the returned function is called, reconnecting after a dropped
+ * stream. Every (re)connection starts with a `ready` event: changes may have been missed meanwhile,
+ * so that is the moment to reload. Read with fetch rather than EventSource, which cannot send the
+ * Authorization header.
+ */
+export function subscribeToChanges(onEvent: (event: ChangeEvent) => void): () => void {
+  const controller = new AbortController();
+  let retryMs = 1000;
+
+  async function follow() {
+    const token = getToken();
+    if (!token) return;
+
+    const response = await fetch(`${API_BASE_URL}/api/events`, {
+      headers: { Accept: 'text/event-stream', Authorization: `Bearer ${token}` },
+      signal: controller.signal,
+    });
+    if (response.status === 401 || response.status === 403) {
+      setToken(null);
+      return;
+    }
+    if (!response.ok || !response.body) {
+      throw new ApiError(response.status, `HTTP ${response.status}`);
+    }
+
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) return;
+      buffer += value;
+      let end: number;
+      while ((end = buffer.indexOf('\n\n')) >= 0) {
+        const block = buffer.slice(0, end);
+        buffer = buffer.slice(end + 2);
+        const data = block
+          .split('\n')
+          .filter((line) => line.startsWith('data:'))
+          .map((line) => line.slice(5).trimStart())
+          .join('\n');
+        if (data) {
+          retryMs = 1000;
+          onEvent(JSON.parse(data) as ChangeEvent);
+        }
+      }
+    }
+  }
+
+  (async () => {
+    while (!controller.signal.aborted && getToken()) {
+      try {
+        await follow();
+      } catch {
+        // Network error or server restart: retry below.
+      }
+      if (controller.signal.aborted) return;
+      await new Promise((resolve) => window.setTimeout(resolve, retryMs));
+      retryMs = Math.min(retryMs * 2, 30000);
+    }
+  })();
+
+  return () => controller.abort();
+}
@@ -1,5 +1,5 @@
 import { Link, useNavigate } from 'react-router-dom';
-import { setToken } from '../api';
+import { logout } from '../api';
 
 export default function TopBar({ subtitle }: { subtitle?: string }) {
   const navigate = useNavigate();
@@ -34,8 +34,7 @@ export default function TopBar({ subtitle }: { subtitle?: string }) {
         className="button buttonDanger"
         type="button"
         onClick={() => {
-          setToken(null);
-          navigate('/login');
+          void logout().then(() => navigate('/login'));
         }}
       >
         Déconnexion
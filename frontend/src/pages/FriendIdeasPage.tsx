@@ -1,7 +1,7 @@
-import { useEffect, useMemo, useRef, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import { Link, useParams } from 'react-router-dom';
-import { addIdea, listFriends, listIdeas } from '../api';
-import type { FriendDto, GiftIdeaDto } from '../types';
+import { ApiError, addIdea, getFriend, getSuggestions, listIdeas, subscribeToChanges } from '../api';
+import type { FriendOverviewDto, GiftIdeaDto } from '../types';
 import TopBar from '../components/TopBar';
 
 export default function FriendIdeasPage() {
@@ -9,84 +9,33 @@ export default function FriendIdeasPage() {
 
   const safeFriendId = friendId ?? '';
 
-  const [friends, setFriends] = useState<FriendDto[] | null>(null);
+  const [friend, setFriend] = useState<FriendOverviewDto | null>(null);
+  const [friendMissing, setFriendMissing] = useState(false);
   const [ideas, setIdeas] = useState<GiftIdeaDto[] | null>(null);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [text, setText] = useState('');
   const [ideaQuery, setIdeaQuery] = useState('');
   const [error, setError] = useState<string | null>(null);
   const [saving, setSaving] = useState(false);
 
   const inputRef = useRef<HTMLInputElement | null>(null);
-  const suggestions = useMemo(() => {
-    return [
-      'Abonnement salle de sport (1 mois)',
-      'Abonnement streaming (1 mois)',
-      'Affiche / poster encadré',
-      'Album photo personnalisé',
-      'Atelier (cuisine, poterie…)',
-      'Bande dessinée',
-      'Billets de concert',
-      'Billets de cinéma (2 places)',
-      'Bon pour un massage',
-      'Box découverte (thé, café, snacks…)',
-      'Livre',
-      'Livre audio (abonnement 1 mois)',
-      'Mug personnalisé',
-      'Montre',
-      'Montre connectée',
-      'Dîner au restaurant',
-      'Dégustation (fromages / chocolat)',
-      'Parfum',
-      'Carte cadeau',
-      'Casque audio',
-      'Bougie parfumée',
-      'Diffuseur d’huiles essentielles',
-      'Sweat / hoodie',
-      'T-shirt / pull',
-      'Chaussettes fun / chaudes',
-      'Écharpe',
-      'Jeu de société',
-      'Jeu vidéo (carte cadeau)',
-      'Lego',
-      'Lampe de chevet',
-      'Guirlande lumineuse',
-      'Sac / tote bag',
-      'Sac banane',
-      'Portefeuille',
-      'Porte-clés personnalisé',
-      'Plante d’intérieur',
-      'Kit jardinage / plantes aromatiques',
-      'Bouteille isotherme',
-      'Gourde filtrante',
-      'Tapis de sport',
-      'Élastiques de fitness',
-      'Tapis de yoga',
-      'Serviette microfibre (sport/voyage)',
-      'Puzzle',
-      'Escape game',
-      'Week-end surprise',
-      'Carnet + stylos (joli set)',
-      'Pochette / organiseur de voyage',
-      'Chargeur rapide',
-      'Batterie externe',
-      'Support téléphone voiture',
-      'Enceinte Bluetooth',
-      'Clavier / souris',
-      'Souris ergonomique',
-      'Platine vinyle (ou vinyle préféré)',
-      'Plante LEGO / déco',
-      'Cours de langue (1 mois)',
-      'Cours de danse',
-      'Trousse de soins (skincare)',
-      'Coffret bain / spa maison',
-    ];
-  }, []);
-
-  const filteredSuggestions = useMemo(() => {
-    const q = ideaQuery.trim().toLowerCase();
-    if (!q) return suggestions;
-    return suggestions.filter((s) => s.toLowerCase().includes(q));
-  }, [ideaQuery, suggestions]);
+  const [suggestions, setSuggestions] = useState<string[]>([]);
+
+  useEffect(() => {
+    let cancelled = false;
+    const prefix = ideaQuery.trimStart();
+    (async () => {
+      try {
+        const values = await getSuggestions(prefix, prefix ? 20 : 8);
+        if (!cancelled) setSuggestions(values);
+      } catch {
+        if (!cancelled) setSuggestions([]);
+      }
+    })();
+    return () => {
+      cancelled = true;
+    };
+  }, [ideaQuery]);
 
   function applySuggestion(value: string) {
     setText(value);
@@ -94,21 +43,68 @@ export default function FriendIdeasPage() {
   }
 
   function pickRandomSuggestion() {
-    const pool = filteredSuggestions.length > 0 ? filteredSuggestions : suggestions;
-    const random = pool[Math.floor(Math.random() * pool.length)];
+    const random = suggestions[Math.floor(Math.random() * suggestions.length)];
     if (random) applySuggestion(random);
   }
 
-  const friend = useMemo(() => {
-    if (!friends) return null;
-    return friends.find((f) => f.id === safeFriendId) ?? null;
-  }, [friends, safeFriendId]);
+  async function loadFriend(): Promise<FriendOverviewDto | null> {
+    try {
+      return await getFriend(safeFriendId);
+    } catch (e) {
+      if (e instanceof ApiError && e.status === 404) return null;
+      throw e;
+    }
+  }
 
   async function refresh() {
     setError(null);
-    const [f, i] = await Promise.all([listFriends(), listIdeas(safeFriendId)]);
-    setFriends(f);
-    setIdeas(i);
+    const [f, i] = await Promise.all([loadFriend(), listIdeas(safeFriendId)]);
+    setFriend(f);
+    setFriendMissing(f === null);
+    setIdeas(i.items);
+    setNextCursor(i.next);
+  }
+
+  // Newest first; our own additions also come back as change events, hence the id check.
+  function prependIdea(idea: GiftIdeaDto) {
+    setIdeas((cur) => (cur && !cur.some((i) => i.id === idea.id) ? [idea, ...cur] : cur));
+  }
+
+  useEffect(
+    () =>
+      subscribeToChanges((event) => {
+        if (event.type === 'ready') {
+          refresh().catch(() => setError('Impossible de charger les données.'));
+          return;
+        }
+        if (event.friendId !== safeFriendId) return;
+        switch (event.type) {
+          case 'friend.updated':
+            setFriend((cur) => (cur ? { ...cur, name: event.name } : cur));
+            break;
+          case 'friend.deleted':
+            setFriend(null);
+            setFriendMissing(true);
+            break;
+          case 'idea.created':
+            prependIdea({ id: event.ideaId, text: event.text, createdAt: event.createdAt });
+            break;
+        }
+      }),
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+    [safeFriendId],
+  );
+
+  async function loadMore() {
+    if (!nextCursor) return;
+    setError(null);
+    try {
+      const page = await listIdeas(safeFriendId, nextCursor);
+      setIdeas((cur) => [...(cur ?? []), ...page.items]);
+      setNextCursor(page.next);
+    } catch {
+      setError("Impossible de charger plus d'idées.");
+    }
   }
 
   useEffect(() => {
@@ -185,14 +181,14 @@ export default function FriendIdeasPage() {
                 <div style={{ height: 10 }} />
 
                 <div className="chips">
-                  {(ideaQuery.trim() ? filteredSuggestions : filteredSuggestions.slice(0, 8)).map((s) => (
+                  {suggestions.map((s) => (
                     <button key={s} type="button" className="chip" onClick={() => applySuggestion(s)}>
                       {s}
                     </button>
                   ))}
                 </div>
 
-                {ideaQuery.trim() && filteredSuggestions.length === 0 ? (
+                {ideaQuery.trim() && suggestions.length === 0 ? (
                   <div style={{ marginTop: 8 }} className="itemMeta">
                     Aucun résultat. Essaie un mot-clé (ex: “livre”, “sport”, “cours”…).
                   </div>
@@ -216,6 +212,15 @@ export default function FriendIdeasPage() {
               </div>
             )}
 
+            {nextCursor ? (
+              <>
+                <div style={{ height: 12 }} />
+                <button className="button" type="button" onClick={() => loadMore()}>
+                  Afficher plus
+                </button>
+              </>
+            ) : null}
+
             <div style={{ height: 16 }} />
 
             <div className="card" style={{ background: 'rgba(255,255,255,0.04)' }}>
@@ -240,11 +245,18 @@ export default function FriendIdeasPage() {
 
                     setSaving(true);
                     try {
-                      await addIdea(safeFriendId, trimmed);
+                      const created = await addIdea(safeFriendId, trimmed);
                       setText('');
-                      await refresh();
-                    } catch {
-                      setError("Impossible d'ajouter l'idée.");
+                      prependIdea(created);
+                      if (created.duplicateOf) {
+                        setError('Ajoutée, mais une idée presque identique existait déjà pour cet ami.');
+                      }
+                    } catch (err) {
+                      setError(
+                        err instanceof ApiError && err.status === 409
+                          ? 'Une idée presque identique existe déjà pour cet ami.'
+                          : "Impossible d'ajouter l'idée.",
+                      );
                     } finally {
                       setSaving(false);
                     }
@@ -262,7 +274,7 @@ export default function FriendIdeasPage() {
                   </button>
                 </form>
 
-                {!friend && friends ? (
+                {friendMissing ? (
                   <div style={{ height: 10 }} className="itemMeta">
                     Cet ami n’est pas dans ta liste. <Link className="link" to="/friends">Revenir</Link>
                   </div>
@@ -1,11 +1,20 @@
 import { useEffect, useMemo, useState } from 'react';
 import { Link } from 'react-router-dom';
-import { ApiError, createFriend, deleteFriend, listFriends, updateFriend } from '../api';
-import type { FriendDto } from '../types';
+import {
+  ApiError,
+  createFriend,
+  deleteFriend,
+  listFriendsOverview,
+  searchIdeas,
+  subscribeToChanges,
+  updateFriend,
+} from '../api';
+import type { FriendOverviewDto, IdeaSearchHitDto } from '../types';
 import TopBar from '../components/TopBar';
 
 export default function FriendsPage() {
-  const [friends, setFriends] = useState<FriendDto[] | null>(null);
+  const [friends, setFriends] = useState<FriendOverviewDto[] | null>(null);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [error, setError] = useState<string | null>(null);
 
   const [newName, setNewName] = useState('');
@@ -13,6 +22,30 @@ export default function FriendsPage() {
   const [editingId, setEditingId] = useState<string | null>(null);
   const [editingName, setEditingName] = useState('');
   const [menuOpenId, setMenuOpenId] = useState<string | null>(null);
+  const [searchQuery, setSearchQuery] = useState('');
+  const [searchHits, setSearchHits] = useState<IdeaSearchHitDto[] | null>(null);
+
+  useEffect(() => {
+    const q = searchQuery.trim();
+    if (!q) {
+      setSearchHits(null);
+      return;
+    }
+
+    let cancelled = false;
+    const timer = window.setTimeout(async () => {
+      try {
+        const page = await searchIdeas(q);
+        if (!cancelled) setSearchHits(page.items);
+      } catch {
+        if (!cancelled) setSearchHits([]);
+      }
+    }, 200);
+    return () => {
+      cancelled = true;
+      window.clearTimeout(timer);
+    };
+  }, [searchQuery]);
 
   useEffect(() => {
     if (!menuOpenId) return;
@@ -56,16 +89,75 @@ export default function FriendsPage() {
 
   async function refresh() {
     setError(null);
-    const result = await listFriends();
-    setFriends(result);
+    const page = await listFriendsOverview();
+    setFriends(page.items);
+    setNextCursor(page.next);
+  }
+
+  // Applied both from our own write responses and from change events (ours or another tab's): idempotent.
+  function upsertFriend(id: string, name: string) {
+    setFriends((cur) => {
+      if (!cur) return cur;
+      return cur.some((f) => f.id === id)
+        ? cur.map((f) => (f.id === id ? { ...f, name } : f))
+        : [...cur, { id, name, ideaCount: 0, latestIdea: null }];
+    });
+  }
+
+  function removeFriend(id: string) {
+    setFriends((cur) => (cur ? cur.filter((f) => f.id !== id) : cur));
+  }
+
+  useEffect(
+    () =>
+      subscribeToChanges((event) => {
+        switch (event.type) {
+          case 'ready':
+            refresh().catch(() => setError('Impossible de charger la liste des amis.'));
+            break;
+          case 'friend.created':
+          case 'friend.updated':
+            upsertFriend(event.friendId, event.name);
+            break;
+          case 'friend.deleted':
+            removeFriend(event.friendId);
+            break;
+          case 'idea.created':
+            setFriends((cur) =>
+              cur
+                ? cur.map((f) =>
+                    f.id === event.friendId ? { ...f, ideaCount: f.ideaCount + 1, latestIdea: event.text } : f,
+                  )
+                : cur,
+            );
+            break;
+        }
+      }),
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+    [],
+  );
+
+  async function loadMore() {
+    if (!nextCursor) return;
+    setError(null);
+    try {
+      const page = await listFriendsOverview(nextCursor);
+      setFriends((cur) => [...(cur ?? []), ...page.items]);
+      setNextCursor(page.next);
+    } catch {
+      setError('Impossible de charger la suite de la liste.');
+    }
   }
 
   useEffect(() => {
     let cancelled = false;
     (async () => {
       try {
-        const result = await listFriends();
-        if (!cancelled) setFriends(result);
+        const page = await listFriendsOverview();
+        if (!cancelled) {
+          setFriends(page.items);
+          setNextCursor(page.next);
+        }
       } catch (e) {
         if (e instanceof ApiError && (e.status === 401 || e.status === 403)) {
           setError('Session expirée. Merci de te reconnecter.');
@@ -109,9 +201,9 @@ export default function FriendsPage() {
 
                   setSaving(true);
                   try {
-                    await createFriend(trimmed);
+                    const created = await createFriend(trimmed);
                     setNewName('');
-                    await refresh();
+                    upsertFriend(created.id, created.name);
                   } catch {
                     setError("Impossible d'ajouter cet ami.");
                   } finally {
@@ -135,6 +227,36 @@ export default function FriendsPage() {
                 </label>
               </form>
 
+              <label className="row">
+                <span className="itemMeta">Rechercher dans toutes les idées</span>
+                <input
+                  className="input"
+                  value={searchQuery}
+                  onChange={(e) => setSearchQuery(e.target.value)}
+                  placeholder="Ex: montre, livre…"
+                />
+              </label>
+
+              {searchHits ? (
+                searchHits.length === 0 ? (
+                  <div className="itemMeta">Aucune idée ne correspond.</div>
+                ) : (
+                  <div className="list">
+                    {searchHits.map((hit) => (
+                      <div key={hit.id} className="item">
+                        <div style={{ minWidth: 0 }}>
+                          <div className="itemTitle">{hit.text}</div>
+                          <div className="itemMeta">Pour {hit.friendName ?? '…'}</div>
+                        </div>
+                        <Link className="button buttonSmall" to={`/friends/${encodeURIComponent(hit.friendId)}`}>
+                          Ouvrir
+                        </Link>
+                      </div>
+                    ))}
+                  </div>
+                )
+              ) : null}
+
               <div className="friendsList">
                 {!sorted ? (
                   <div className="itemMeta">Chargement…</div>
@@ -174,10 +296,10 @@ export default function FriendsPage() {
 
                                     setSaving(true);
                                     try {
-                                      await updateFriend(f.id, trimmed);
+                                      const updated = await updateFriend(f.id, trimmed);
                                       setEditingId(null);
                                       setEditingName('');
-                                      await refresh();
+                                      upsertFriend(updated.id, updated.name);
                                     } catch {
                                       setError("Impossible de modifier cet ami.");
                                     } finally {
@@ -202,7 +324,11 @@ export default function FriendsPage() {
                             ) : (
                               <>
                                 <div className="itemTitle">{f.name}</div>
-                                <div className="itemMeta">Voir les idées cadeaux</div>
+                                <div className="itemMeta">
+                                  {f.ideaCount === 0
+                                    ? 'Aucune idée pour le moment'
+                                    : `${f.ideaCount} idée${f.ideaCount > 1 ? 's' : ''} · dernière : ${f.latestIdea}`}
+                                </div>
                               </>
                             )}
                           </div>
@@ -257,7 +383,7 @@ export default function FriendsPage() {
                                       setError(null);
                                       try {
                                         await deleteFriend(f.id);
-                                        await refresh();
+                                        removeFriend(f.id);
                                       } catch {
                                         setError("Impossible de supprimer cet ami.");
                                       } finally {
@@ -278,6 +404,12 @@ export default function FriendsPage() {
                     ))}
                   </div>
                 )}
+
+                {nextCursor ? (
+                  <button className="button" type="button" onClick={() => loadMore()}>
+                    Afficher plus
+                  </button>
+                ) : null}
               </div>
             </div>
         </section>
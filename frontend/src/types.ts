@@ -5,8 +5,32 @@ export type FriendDto = {
   name: string;
 };
 
+export type FriendOverviewDto = FriendDto & {
+  ideaCount: number;
+  latestIdea: string | null;
+};
+
 export type GiftIdeaDto = {
   id: string;
   text: string;
   createdAt: string;
+  /** Set on a created idea when the friend already had a near-identical one. */
+  duplicateOf?: string;
+};
+
+export type IdeaSearchHitDto = GiftIdeaDto & {
+  friendId: string;
+  friendName: string | null;
 };
+
+export type Page<T> = {
+  items: T[];
+  next: string | null;
+};
+
+export type ChangeEvent =
+  | { type: 'ready' }
+  | { type: 'friend.created'; friendId: string; name: string; createdAt: string }
+  | { type: 'friend.updated'; friendId: string; name: string }
+  | { type: 'friend.deleted'; friendId: string }
+  | { type: 'idea.created'; friendId: string; ideaId: string; text: string; createdAt: string };
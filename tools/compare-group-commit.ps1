@@ -0,0 +1,65 @@
+param(
+	[int]$Clients = 64,
+	[int]$Seconds = 30
+)
+
+$ErrorActionPreference='Stop'
+
+# Runs tools/LoadDriver.java (idea writes only) against the packaged backend twice: one transaction per
+# request, then group commit. Each run uses a fresh file database in a temporary directory, since what
+# group commit saves is mostly the per-commit log sync that an in-memory database never pays.
+
+$repo = Split-Path -Parent $PSScriptRoot
+$backend = Join-Path $repo 'backend'
+$api = 'http://localhost:8080'
+$logOut = Join-Path $repo 'backend-bench.log'
+$logErr = Join-Path $repo 'backend-bench.err.log'
+
+function Wait-BackendUp {
+	param([int]$TimeoutSeconds = 120)
+	$deadline = (Get-Date).AddSeconds($TimeoutSeconds)
+	while ((Get-Date) -lt $deadline) {
+		try {
+			$resp = Invoke-RestMethod -Method Post -Uri "$api/api/auth/login" -ContentType 'application/json' -Body '{"username":"omar","password":"password"}'
+			if ($resp.token) { return }
+		} catch {
+			Start-Sleep -Milliseconds 900
+		}
+	}
+	if (Test-Path $logErr) {
+		Get-Content -Path $logErr -Tail 60 -ErrorAction SilentlyContinue
+	}
+	throw "Backend not ready after $TimeoutSeconds seconds"
+}
+
+function Start-Backend([string]$GroupCommit, [string]$DataDir) {
+	Remove-Item $logOut,$logErr -ErrorAction SilentlyContinue
+	$jar = Join-Path $backend 'target\quarkus-app\quarkus-run.jar'
+	Start-Process -FilePath 'java' -ArgumentList @(
+		"-Dfriendgift.ideas.group-commit.enabled=$GroupCommit",
+		# Measure the write path itself, not the admission limits in front of it.
+		'-Dfriendgift.limiter.enabled=false',
+		"-Dquarkus.datasource.jdbc.url=jdbc:h2:file:$DataDir/bench",
+		'-jar', $jar
+	) -WorkingDirectory $backend -RedirectStandardOutput $logOut -RedirectStandardError $logErr -PassThru
+}
+
+Write-Host 'Packaging backend...'
+& mvn -q -f (Join-Path $backend 'pom.xml') package -DskipTests
+if ($LASTEXITCODE -ne 0) { throw 'Build failed' }
+
+$tool = Join-Path $backend 'tools\LoadDriver.java'
+foreach ($mode in @(@{ Label = 'per-request'; GroupCommit = 'false' }, @{ Label = 'group-commit'; GroupCommit = 'true' })) {
+	$dataDir = Join-Path ([System.IO.Path]::GetTempPath()) ("friendgift-bench-" + [guid]::NewGuid())
+	New-Item -ItemType Directory -Path $dataDir | Out-Null
+	Write-Host ("Starting backend (" + $mode.Label + ")...")
+	$p = Start-Backend $mode.GroupCommit $dataDir
+	try {
+		Wait-BackendUp
+		& java $tool $api $Clients $Seconds 0 (Join-Path $repo ("load-" + $mode.Label + ".json")) writes
+	} finally {
+		Stop-Process -Id $p.Id -Force -ErrorAction SilentlyContinue
+		Start-Sleep -Seconds 3
+		Remove-Item -Recurse -Force $dataDir -ErrorAction SilentlyContinue
+	}
+}
@@ -0,0 +1,62 @@
+param(
+	[int[]]$Levels = @(16, 64, 256, 1024),
+	[int]$Seconds = 10
+)
+
+$ErrorActionPreference='Stop'
+
+# Runs tools/ConcurrencyBenchmark.java against the packaged backend twice: blocking endpoints on the
+# worker pool, then on virtual threads (needs a JDK 21+ on the PATH). Each run uses a fresh in-memory
+# database seeded with the demo data, so the file DB under backend/data is never touched.
+
+$repo = Split-Path -Parent $PSScriptRoot
+$backend = Join-Path $repo 'backend'
+$api = 'http://localhost:8080'
+$logOut = Join-Path $repo 'backend-bench.log'
+$logErr = Join-Path $repo 'backend-bench.err.log'
+
+function Wait-BackendUp {
+	param([int]$TimeoutSeconds = 120)
+	$deadline = (Get-Date).AddSeconds($TimeoutSeconds)
+	while ((Get-Date) -lt $deadline) {
+		try {
+			$resp = Invoke-RestMethod -Method Post -Uri "$api/api/auth/login" -ContentType 'application/json' -Body '{"username":"omar","password":"password"}'
+			if ($resp.token) { return }
+		} catch {
+			Start-Sleep -Milliseconds 900
+		}
+	}
+	if (Test-Path $logErr) {
+		Get-Content -Path $logErr -Tail 60 -ErrorAction SilentlyContinue
+	}
+	throw "Backend not ready after $TimeoutSeconds seconds"
+}
+
+function Start-Backend([string]$VirtualThreads) {
+	Remove-Item $logOut,$logErr -ErrorAction SilentlyContinue
+	$jar = Join-Path $backend 'target\quarkus-app\quarkus-run.jar'
+	Start-Process -FilePath 'java' -ArgumentList @(
+		"-Dquarkus.virtual-threads.enabled=$VirtualThreads",
+		# Measure the thread modes themselves, not the admission limits in front of them.
+		'-Dfriendgift.limiter.enabled=false',
+		'-Dquarkus.datasource.jdbc.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1',
+		'-jar', $jar
+	) -WorkingDirectory $backend -RedirectStandardOutput $logOut -RedirectStandardError $logErr -PassThru
+}
+
+Write-Host 'Packaging backend...'
+& mvn -q -f (Join-Path $backend 'pom.xml') package -DskipTests
+if ($LASTEXITCODE -ne 0) { throw 'Build failed' }
+
+$tool = Join-Path $backend 'tools\ConcurrencyBenchmark.java'
+foreach ($mode in @(@{ Label = 'worker'; VirtualThreads = 'false' }, @{ Label = 'virtual'; VirtualThreads = 'true' })) {
+	Write-Host ("Starting backend (" + $mode.Label + ")...")
+	$p = Start-Backend $mode.VirtualThreads
+	try {
+		Wait-BackendUp
+		& java $tool $api ($Levels -join ',') $Seconds $mode.Label
+	} finally {
+		Stop-Process -Id $p.Id -Force -ErrorAction SilentlyContinue
+		Start-Sleep -Seconds 3
+	}
+}
@@ -1,3 +1,5 @@
+param([string]$Algorithm = 'RS256')
+
 $ErrorActionPreference='Stop'
 
 $repo = Split-Path -Parent $PSScriptRoot
@@ -10,13 +12,13 @@ if (-not (Test-Path $genJava)) {
 	throw "Missing $genJava"
 }
 
-Write-Host "Generating JWT RSA keys in $keysDir" -ForegroundColor Cyan
+Write-Host "Generating JWT $Algorithm keys in $keysDir" -ForegroundColor Cyan
 
 Push-Location (Join-Path $backend 'tools')
 try {
 	# Compile tool (output ignored by .gitignore: *.class)
 	javac .\GenerateJwtKeys.java
-	java -cp . GenerateJwtKeys (Join-Path $keysDir 'privateKey.pem') (Join-Path $keysDir 'publicKey.pem')
+	java -cp . GenerateJwtKeys (Join-Path $keysDir 'privateKey.pem') (Join-Path $keysDir 'publicKey.pem') $Algorithm
 } finally {
 	Pop-Location
 }